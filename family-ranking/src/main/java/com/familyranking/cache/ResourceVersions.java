@@ -0,0 +1,52 @@
+package com.familyranking.cache;
+
+import com.familyranking.util.Transactions;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic change counters behind the ETags of read-mostly resources: one per game leaderboard
+ * and one for the game catalog. Counters live in memory, so every tag also carries the boot
+ * time and a restart can never revalidate a tag issued by the previous process.
+ * Bumps are applied after commit, once the new data is visible to readers.
+ */
+@Component
+public class ResourceVersions {
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentMap<Long, AtomicLong> leaderboards = new ConcurrentHashMap<>();
+    private final AtomicLong catalog = new AtomicLong();
+
+    public String leaderboardEtag(Long gameId) {
+        return "\"lb-" + gameId + "-" + bootId + "-" + leaderboard(gameId).get() + "\"";
+    }
+
+    /** Tag for a derived view of the leaderboard that can also change without a write, e.g. a time window. */
+    public String leaderboardEtag(Long gameId, String variant) {
+        return "\"lb-" + gameId + "-" + bootId + "-" + leaderboard(gameId).get() + "-" + variant + "\"";
+    }
+
+    public String catalogEtag() {
+        return "\"games-" + bootId + "-" + catalog.get() + "\"";
+    }
+
+    public void bumpLeaderboard(Long gameId) {
+        Transactions.afterCommit(() -> leaderboard(gameId).incrementAndGet());
+    }
+
+    /** For changes that show up on every board, e.g. a renamed or deleted player. */
+    public void bumpAllLeaderboards() {
+        Transactions.afterCommit(() -> leaderboards.values().forEach(AtomicLong::incrementAndGet));
+    }
+
+    public void bumpCatalog() {
+        Transactions.afterCommit(catalog::incrementAndGet);
+    }
+
+    private AtomicLong leaderboard(Long gameId) {
+        return leaderboards.computeIfAbsent(gameId, id -> new AtomicLong());
+    }
+}
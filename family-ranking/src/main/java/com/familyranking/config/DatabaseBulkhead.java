@@ -0,0 +1,113 @@
+package com.familyranking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Semaphore in front of the connection pool, so every repository call takes a permit with its
+ * connection: at most {@code max-concurrent} callers may hold or wait for one, and the rest give up
+ * after {@code wait-timeout-ms} (surfacing as a 503). Without it, a slow database lets every Tomcat
+ * thread queue on Hikari for its full connection timeout.
+ */
+@Component
+@ConditionalOnProperty(name = "app.db.bulkhead.enabled", havingValue = "true")
+public class DatabaseBulkhead implements BeanPostProcessor {
+
+    private final int maxConcurrent;
+    private final long waitTimeoutMs;
+
+    public DatabaseBulkhead(@Value("${app.db.bulkhead.max-concurrent:30}") int maxConcurrent,
+                            @Value("${app.db.bulkhead.wait-timeout-ms:1000}") long waitTimeoutMs) {
+        this.maxConcurrent = maxConcurrent;
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+            return new BulkheadDataSource(dataSource, new Semaphore(maxConcurrent, true), waitTimeoutMs);
+        }
+        return bean;
+    }
+
+    static final class BulkheadDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits;
+        private final long waitTimeoutMs;
+
+        BulkheadDataSource(DataSource target, Semaphore permits, long waitTimeoutMs) {
+            super(target);
+            this.permits = permits;
+            this.waitTimeoutMs = waitTimeoutMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            return guard(this::obtainTargetConnection);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            return guard(() -> obtainTargetDataSource().getConnection(username, password));
+        }
+
+        private Connection obtainTargetConnection() throws SQLException {
+            return obtainTargetDataSource().getConnection();
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(waitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException("Database bulkhead full");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for the database bulkhead", e);
+            }
+        }
+
+        private interface ConnectionSource {
+            Connection get() throws SQLException;
+        }
+
+        /** Opens a connection under the acquired permit and hands the permit back when it is closed. */
+        private Connection guard(ConnectionSource source) throws SQLException {
+            Connection target;
+            try {
+                target = source.get();
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        boolean closing = method.getName().equals("close") && method.getParameterCount() == 0;
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            if (closing && released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                    });
+        }
+    }
+}
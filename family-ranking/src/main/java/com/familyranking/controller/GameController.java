@@ -1,9 +1,11 @@
 package com.familyranking.controller;
 
+import com.familyranking.cache.ResourceVersions;
 import com.familyranking.dto.request.GameRequest;
 import com.familyranking.dto.response.Response;
 import com.familyranking.entity.User;
 import com.familyranking.exception.ForbiddenException;
+import com.familyranking.job.RatingReplayJob;
 import com.familyranking.service.GameService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,10 +23,16 @@ import java.util.List;
 public class GameController {
 
     private final GameService gameService;
+    private final ResourceVersions versions;
+    private final RatingReplayJob ratingReplayJob;
 
     @GetMapping
-    public ResponseEntity<List<Response.GameDto>> getAllGames() {
-        return ResponseEntity.ok(gameService.getAllGames());
+    public ResponseEntity<List<Response.GameDto>> getAllGames(WebRequest webRequest) {
+        String etag = versions.catalogEtag();
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(gameService.getAllGames());
     }
 
     @PostMapping
@@ -52,6 +61,13 @@ public class GameController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/ratings/recompute")
+    public ResponseEntity<Response.ApiResponse> recomputeRatings(@AuthenticationPrincipal User user) {
+        requireAdmin(user);
+        ratingReplayJob.replayAll();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Response.ApiResponse.ok("Rating recompute started"));
+    }
+
     private static void requireAdmin(User user) {
         if (user == null || !"admin".equalsIgnoreCase(user.getUsername())) {
             throw new ForbiddenException("Only the admin user can manage games");
@@ -1,16 +1,35 @@
 package com.familyranking.controller;
 
+import com.familyranking.cache.ResourceVersions;
+import com.familyranking.dto.request.BatchMatchItem;
+import com.familyranking.dto.request.BatchMatchRequest;
 import com.familyranking.dto.request.MatchRequest;
 import com.familyranking.dto.response.Response;
+import com.familyranking.entity.Match.MatchStatus;
 import com.familyranking.entity.User;
+import com.familyranking.exception.BadRequestException;
+import com.familyranking.exception.ForbiddenException;
+import com.familyranking.job.ParticipantBackfillJob;
+import com.familyranking.job.StatsBackfillJob;
+import com.familyranking.leaderboard.LeaderboardStream;
+import com.familyranking.leaderboard.RankingWindow;
+import com.familyranking.outbox.StatsOutbox;
+import com.familyranking.repository.MatchHistoryRepository.MatchFilter;
+import com.familyranking.repository.MatchHistoryRepository.Settlement;
 import com.familyranking.service.MatchService;
+import com.familyranking.util.JsonArrayWriter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,6 +38,15 @@ import java.util.List;
 public class MatchController {
 
     private final MatchService matchService;
+    private final StatsBackfillJob statsBackfillJob;
+    private final ParticipantBackfillJob participantBackfillJob;
+    private final ResourceVersions versions;
+    private final LeaderboardStream leaderboardStream;
+    private final StatsOutbox statsOutbox;
+    private final JsonArrayWriter jsonArrayWriter;
+
+    @Value("${app.leaderboard.season-months:3}")
+    private int seasonMonths;
 
     @PostMapping("/create")
     public ResponseEntity<Response.MatchDto> createMatch(
@@ -27,11 +55,26 @@ public class MatchController {
         return ResponseEntity.status(HttpStatus.CREATED).body(matchService.createMatch(user, request));
     }
 
+    /** Tournament import: creates many matches in one transaction and reports a result per item. */
+    @PostMapping("/batch")
+    public ResponseEntity<List<Response.BatchMatchResult>> createMatches(
+            @AuthenticationPrincipal User user,
+            @Valid @RequestBody BatchMatchRequest request) {
+        // Only admin may apply points right away or record 1v1 matches the caller did not play
+        if (request.isAutoAccept() || !request.getMatches().stream().allMatch(m -> playsIn(user, m))) {
+            requireAdmin(user);
+        }
+        return ResponseEntity.ok(matchService.createMatches(user, request.getMatches(), request.isAutoAccept()));
+    }
+
     @PostMapping("/{id}/accept")
     public ResponseEntity<Response.MatchDto> acceptMatch(
             @AuthenticationPrincipal User user,
             @PathVariable Long id) {
-        return ResponseEntity.ok(matchService.acceptMatch(user, id));
+        matchService.acceptMatch(user, id);
+        // Stats are applied asynchronously; give the outbox a moment, then map the players with their new points
+        statsOutbox.await(id);
+        return ResponseEntity.ok(matchService.getMatch(id));
     }
 
     @PostMapping("/{id}/reject")
@@ -55,13 +98,118 @@ public class MatchController {
         return ResponseEntity.ok(matchService.confirmSettlement(user, id));
     }
 
+    /** Match history; {@code view=compact} returns {@link Response.CompactMatches} instead of full DTOs. */
     @GetMapping("/my")
-    public ResponseEntity<List<Response.MatchDto>> getMyMatches(@AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(matchService.getMyMatches(user));
+    public ResponseEntity<?> getMyMatches(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) Long gameId,
+            @RequestParam(required = false) MatchStatus status,
+            @RequestParam(required = false) Settlement settlement,
+            @RequestParam(required = false) String view) {
+        MatchFilter filter = new MatchFilter(gameId, status, settlement);
+        if (isCompact(view)) {
+            return ResponseEntity.ok(matchService.getMyMatchesCompact(user, filter));
+        }
+        return jsonArrayWriter.<Response.MatchDto>stream(sink -> matchService.streamMyMatches(user, filter, sink));
+    }
+
+    /** Keyset-paginated history, newest first; pass {@code nextCursor} back to continue. */
+    @GetMapping("/my/page")
+    public ResponseEntity<?> getMyMatchesPage(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) Long gameId,
+            @RequestParam(required = false) MatchStatus status,
+            @RequestParam(required = false) Settlement settlement,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String view) {
+        MatchFilter filter = new MatchFilter(gameId, status, settlement);
+        return ResponseEntity.ok(isCompact(view)
+                ? matchService.getMyMatchesPageCompact(user, filter, cursor, limit)
+                : matchService.getMyMatchesPage(user, filter, cursor, limit));
     }
 
     @GetMapping("/ranking")
-    public ResponseEntity<List<Response.RankingEntry>> getRanking(@RequestParam Long gameId) {
-        return ResponseEntity.ok(matchService.getRanking(gameId));
+    public ResponseEntity<List<Response.RankingEntry>> getRanking(
+            @RequestParam Long gameId,
+            @RequestParam(defaultValue = "ALL") RankingWindow window,
+            WebRequest webRequest) {
+        // Windowed boards also roll over when a new period starts, without any write
+        String etag = window == RankingWindow.ALL
+                ? versions.leaderboardEtag(gameId)
+                : versions.leaderboardEtag(gameId, window + "-" + window.start(LocalDate.now(), seasonMonths));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(matchService.getRanking(gameId, window));
+    }
+
+    @GetMapping("/ratings")
+    public ResponseEntity<List<Response.RatingEntry>> getRatings(@RequestParam Long gameId) {
+        return ResponseEntity.ok(matchService.getRatings(gameId));
+    }
+
+    @GetMapping(value = "/ranking/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRanking(@RequestParam Long gameId) {
+        return leaderboardStream.subscribe(gameId);
+    }
+
+    @GetMapping("/ranking/page")
+    public ResponseEntity<Response.RankingPage> getRankingPage(
+            @RequestParam Long gameId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+        String etag = versions.leaderboardEtag(gameId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(matchService.getRankingPage(gameId, cursor, limit));
+    }
+
+    @GetMapping("/ranking/around-me")
+    public ResponseEntity<List<Response.RankingEntry>> getRankingAroundMe(
+            @AuthenticationPrincipal User user,
+            @RequestParam Long gameId,
+            @RequestParam(defaultValue = "5") int size) {
+        return ResponseEntity.ok(matchService.getRankingAroundMe(user, gameId, size));
+    }
+
+    @GetMapping("/ranking/me")
+    public ResponseEntity<Response.RankingEntry> getMyRank(
+            @AuthenticationPrincipal User user,
+            @RequestParam Long gameId) {
+        return ResponseEntity.ok(matchService.getMyRank(user, gameId));
+    }
+
+    @PostMapping("/ranking/backfill")
+    public ResponseEntity<Response.ApiResponse> backfillWindowedRankings(@AuthenticationPrincipal User user) {
+        requireAdmin(user);
+        statsBackfillJob.rebuildDailyStats();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Response.ApiResponse.ok("Backfill started"));
+    }
+
+    @PostMapping("/participants/backfill")
+    public ResponseEntity<Response.ApiResponse> backfillParticipants(@AuthenticationPrincipal User user) {
+        requireAdmin(user);
+        participantBackfillJob.rebuild();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Response.ApiResponse.ok("Backfill started"));
+    }
+
+    private static boolean isCompact(String view) {
+        if (view == null || view.equalsIgnoreCase("full")) return false;
+        if (view.equalsIgnoreCase("compact")) return true;
+        throw new BadRequestException("Unknown view: " + view);
+    }
+
+    private static boolean playsIn(User user, BatchMatchItem item) {
+        return item.isTeamMatch()
+                || user.getId().equals(item.getPlayer1Id()) || user.getId().equals(item.getPlayer2Id());
+    }
+
+    private static void requireAdmin(User user) {
+        if (user == null || !"admin".equalsIgnoreCase(user.getUsername())) {
+            throw new ForbiddenException("Only admin can perform this action");
+        }
     }
 }
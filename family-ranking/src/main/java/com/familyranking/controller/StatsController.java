@@ -0,0 +1,46 @@
+package com.familyranking.controller;
+
+import com.familyranking.dto.response.Response;
+import com.familyranking.entity.User;
+import com.familyranking.repository.PlayerDailyStatsRepository.Resolution;
+import com.familyranking.service.StatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final StatsService statsService;
+
+    /** 1v1 record of {@code userA} against {@code userB}: one indexed row, kept current by the stats outbox. */
+    @GetMapping("/head-to-head")
+    public ResponseEntity<Response.HeadToHead> getHeadToHead(
+            @RequestParam Long userA,
+            @RequestParam Long userB,
+            @RequestParam Long gameId) {
+        return ResponseEntity.ok(statsService.getHeadToHead(userA, userB, gameId));
+    }
+
+    /**
+     * Points over time of a player (default: the caller) in a game, rolled up by day, week or month.
+     * Both dates are inclusive; without them the last year up to today is returned.
+     */
+    @GetMapping("/points-series")
+    public ResponseEntity<Response.PointsSeries> getPointsSeries(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) Long userId,
+            @RequestParam Long gameId,
+            @RequestParam(defaultValue = "DAY") Resolution resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(statsService.getPointsSeries(
+                userId != null ? userId : user.getId(), gameId, resolution, from, to));
+    }
+}
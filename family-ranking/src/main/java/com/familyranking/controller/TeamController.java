@@ -3,13 +3,13 @@ package com.familyranking.controller;
 import com.familyranking.dto.request.TeamRequest;
 import com.familyranking.dto.response.Response;
 import com.familyranking.service.TeamService;
+import com.familyranking.util.JsonArrayWriter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/teams")
@@ -17,6 +17,7 @@ import java.util.List;
 public class TeamController {
 
     private final TeamService teamService;
+    private final JsonArrayWriter jsonArrayWriter;
 
     @PostMapping
     public ResponseEntity<Response.TeamDto> createTeam(@Valid @RequestBody TeamRequest request) {
@@ -24,7 +25,7 @@ public class TeamController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Response.TeamDto>> getTeams(@RequestParam Long gameId) {
-        return ResponseEntity.ok(teamService.getTeamsByGame(gameId));
+    public ResponseEntity<StreamingResponseBody> getTeams(@RequestParam Long gameId) {
+        return jsonArrayWriter.<Response.TeamDto>stream(sink -> teamService.streamTeamsByGame(gameId, sink));
     }
 }
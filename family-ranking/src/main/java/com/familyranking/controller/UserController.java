@@ -7,14 +7,14 @@ import com.familyranking.dto.response.Response;
 import com.familyranking.entity.User;
 import com.familyranking.exception.ForbiddenException;
 import com.familyranking.service.UserService;
+import com.familyranking.util.JsonArrayWriter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/users")
@@ -22,6 +22,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final JsonArrayWriter jsonArrayWriter;
 
     private static void requireAdmin(User user) {
         if (user == null || !"admin".equalsIgnoreCase(user.getUsername())) {
@@ -30,8 +31,8 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Response.UserProfile>> getAll() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<StreamingResponseBody> getAll() {
+        return jsonArrayWriter.stream(userService::streamAllUsers);
     }
 
     @GetMapping("/me")
@@ -0,0 +1,34 @@
+package com.familyranking.dto.request;
+
+import com.familyranking.entity.Match.BetType;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/** One match of a tournament import; unlike MatchRequest, both sides are named explicitly. */
+@Data
+public class BatchMatchItem {
+
+    @NotNull
+    private Long gameId;
+
+    private boolean teamMatch;
+
+    // 1v1
+    private Long player1Id;
+    private Long player2Id;
+
+    // Team match
+    private Long team1Id;
+    private Long team2Id;
+
+    @NotNull
+    private BetType betType;
+
+    private String betDescription;
+
+    private Integer score1;
+    private Integer score2;
+
+    // Optional: directly set winner (player/team id)
+    private Long winnerId;
+}
@@ -0,0 +1,19 @@
+package com.familyranking.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchMatchRequest {
+
+    @NotEmpty
+    @Size(max = 500)
+    private List<@Valid BatchMatchItem> matches;
+
+    // Admin only: accept every created match right away and apply points
+    private boolean autoAccept;
+}
@@ -1,6 +1,9 @@
 package com.familyranking.dto.request;
 
+import com.familyranking.entity.Game.RatingModel;
+import com.familyranking.entity.Game.TiePolicy;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
 @Data
@@ -11,4 +14,8 @@ public class GameRequest {
     private int drawPoint = 1;
     private int lossPoint = 0;
     private boolean teamGame;
+    private TiePolicy tiePolicy = TiePolicy.STANDARD;
+    private RatingModel ratingModel = RatingModel.NONE;
+    @Positive private Double ratingK;
+    @Positive private Double ratingTau;
 }
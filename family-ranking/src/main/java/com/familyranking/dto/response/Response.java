@@ -1,12 +1,17 @@
 package com.familyranking.dto.response;
 
+import com.familyranking.entity.Game.RatingModel;
+import com.familyranking.entity.Game.TiePolicy;
 import com.familyranking.entity.Match.BetType;
 import com.familyranking.entity.Match.MatchStatus;
+import com.familyranking.repository.PlayerDailyStatsRepository.Resolution;
 import lombok.Builder;
 import lombok.Data;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public class Response {
 
@@ -41,6 +46,10 @@ public class Response {
         private int drawPoint;
         private int lossPoint;
         private boolean teamGame;
+        private TiePolicy tiePolicy;
+        private RatingModel ratingModel;
+        private Double ratingK;
+        private Double ratingTau;
     }
 
     @Data @Builder
@@ -73,6 +82,72 @@ public class Response {
         private LocalDateTime createdAt;
     }
 
+    /**
+     * Opt-in normalized match list: matches point at users, teams and games by id and each of
+     * those appears once in the dictionaries next to them.
+     */
+    @Data @Builder
+    public static class CompactMatches {
+        private List<CompactMatch> matches;
+        private Map<Long, UserRef> users;
+        private Map<Long, CompactTeam> teams;
+        private Map<Long, GameDto> games;
+        /** Set for paged requests: pass back as {@code cursor}; null on the last page. */
+        private String nextCursor;
+    }
+
+    @Data @Builder
+    public static class CompactMatch {
+        private Long id;
+        private Long gameId;
+        private boolean teamMatch;
+        private Long player1Id;
+        private Long player2Id;
+        private Long team1Id;
+        private Long team2Id;
+        private BetType betType;
+        private String betDescription;
+        private Integer score1;
+        private Integer score2;
+        private Long winnerId;
+        private MatchStatus status;
+        private boolean resultConfirmedByOpponent;
+        private boolean betSettledRequested;
+        private LocalDateTime betSettledRequestedAt;
+        private boolean betSettledConfirmed;
+        private LocalDateTime createdAt;
+    }
+
+    @Data @Builder
+    public static class CompactTeam {
+        private Long id;
+        private String name;
+        private Long gameId;
+        private List<Long> memberIds;
+    }
+
+    @Data @Builder
+    public static class UserRef {
+        private Long id;
+        private String username;
+        private String avatar;
+    }
+
+    @Data @Builder
+    public static class MatchPage {
+        private List<MatchDto> matches;
+        /** Pass back as {@code cursor} to fetch the next page; null on the last page. */
+        private String nextCursor;
+    }
+
+    @Data @Builder
+    public static class BatchMatchResult {
+        private int index;
+        private boolean success;
+        private String error;
+        private MatchDto match;
+    }
+
     @Data @Builder
     public static class RankingEntry {
         private int rank;
@@ -85,6 +160,76 @@ public class Response {
         private int draws;
     }
 
+    @Data @Builder
+    public static class RatingEntry {
+        private Long userId;
+        private String username;
+        private String avatar;
+        private double rating;
+        /** Glicko-2 rating deviation; null for Elo games. */
+        private Double deviation;
+    }
+
+    /** 1v1 record of {@code userA} against {@code userB} in a game, from userA's side. */
+    @Data @Builder
+    public static class HeadToHead {
+        private UserRef userA;
+        private UserRef userB;
+        private Long gameId;
+        private int played;
+        private int wins;
+        private int losses;
+        private int draws;
+        /** Latest first, W/L/D for userA; holds up to the last 10 matches. */
+        private List<String> lastResults;
+        /** Player on a winning run; null before any match or after a draw. */
+        private Long streakUserId;
+        private int streak;
+        private Long lastMatchId;
+        private LocalDateTime lastPlayedAt;
+    }
+
+    /** Points of a player in a game over time, one entry per day, week or month that had matches. */
+    @Data @Builder
+    public static class PointsSeries {
+        private Long userId;
+        private Long gameId;
+        private Resolution resolution;
+        private LocalDate from;
+        private LocalDate to;
+        /** Points total before {@code from}: where the line starts. */
+        private int startingPoints;
+        private List<PointsBucket> buckets;
+    }
+
+    @Data @Builder
+    public static class PointsBucket {
+        /** First day of the bucket. */
+        private LocalDate start;
+        private int points;
+        private int wins;
+        private int losses;
+        private int draws;
+        /** Running total at the end of the bucket. */
+        private int totalPoints;
+    }
+
+    @Data @Builder
+    public static class RankingPage {
+        private List<RankingEntry> entries;
+        /** Pass back as {@code cursor} to fetch the next page; null on the last page. */
+        private String nextCursor;
+        private int total;
+    }
+
+    @Data @Builder
+    public static class RankingDelta {
+        /** Entries whose rank or stats changed since the previous push. */
+        private List<RankingEntry> changed;
+        /** Players no longer on the board. */
+        private List<Long> removed;
+    }
+
     @Data @Builder
     public static class ApiResponse {
         private boolean success;
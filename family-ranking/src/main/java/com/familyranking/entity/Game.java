@@ -10,6 +10,12 @@ import lombok.*;
 @Builder
 public class Game {
 
+    /** How players level on points and wins are ranked: 1-2-3-4, 1-2-2-4 or 1-2-2-3. */
+    public enum TiePolicy { ORDINAL, STANDARD, DENSE }
+
+    /** Optional skill rating maintained next to the points table. */
+    public enum RatingModel { NONE, ELO, GLICKO2 }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -28,7 +34,19 @@ public class Game {
     @Builder.Default
     private int lossPoint = 0;
 
-    @Column(name = "is_team_game")
+    @Column(name = "is_team_game", nullable = false)
     @Builder.Default
     private boolean teamGame = false;
+
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private TiePolicy tiePolicy = TiePolicy.STANDARD;
+
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private RatingModel ratingModel = RatingModel.NONE;
+
+    // Elo K-factor and Glicko-2 tau; null means the calculator default
+    private Double ratingK;
+    private Double ratingTau;
 }
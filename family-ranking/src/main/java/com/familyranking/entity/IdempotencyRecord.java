@@ -0,0 +1,35 @@
+package com.familyranking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** A claimed Idempotency-Key and, once its request finished, the response; kept when app.idempotency.persistent is on. */
+@Entity
+@Table(name = "idempotency_keys",
+       indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    // Scoped key: user and the client's key
+    @Id
+    @Column(length = 400)
+    private String id;
+
+    // SHA-256 of the method, path and body of the request that first used the key
+    @Column(length = 64, nullable = false)
+    private String fingerprint;
+
+    // 0 while the request is still running
+    private int status;
+
+    private String contentType;
+
+    private byte[] body;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
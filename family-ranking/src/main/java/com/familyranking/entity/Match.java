@@ -15,15 +15,18 @@ public class Match {
     public enum BetType { FRIENDLY, LY_NUOC, OTHER }
     public enum MatchStatus { PENDING, ACCEPTED, REJECTED, COMPLETED }
 
+    // Sequence ids (allocated 50 at a time) let Hibernate batch inserts; IDENTITY forces one insert per row.
+    // Migration V2 started the sequence past ids issued by the old identity column.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "match_id_seq")
+    @SequenceGenerator(name = "match_id_seq", sequenceName = "match_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "game_id", nullable = false)
     private Game game;
 
-    @Column(name = "is_team_match")
+    @Column(name = "is_team_match", nullable = false)
     @Builder.Default
     private boolean teamMatch = false;
 
@@ -76,6 +79,9 @@ public class Match {
     @Column(updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Set when the opponent accepts and points are applied
+    private LocalDateTime completedAt;
+
     // Creator of the match
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by")
@@ -0,0 +1,73 @@
+package com.familyranking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One row per user on a match: both players of a 1v1, every member of either team, and the creator.
+ * Denormalized from matches and team_members so "matches of a user", also by game or status, is one
+ * index range scan.
+ * Written by {@link com.familyranking.repository.MatchParticipantRepository}; rows go away with
+ * their match or user through ON DELETE CASCADE.
+ */
+@Entity
+@Table(name = "match_participants",
+       indexes = {
+               @Index(name = "idx_match_participants_user_created", columnList = "user_id, created_at, match_id"),
+               @Index(name = "idx_match_participants_user_game_created", columnList = "user_id, game_id, created_at, match_id"),
+               @Index(name = "idx_match_participants_user_status_created", columnList = "user_id, status, created_at, match_id")
+       })
+@IdClass(MatchParticipant.Key.class)
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class MatchParticipant {
+
+    /** Side of a creator who does not play in the match. */
+    public static final int CREATOR_ONLY = 0;
+
+    @Getter @Setter
+    @NoArgsConstructor @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long matchId;
+        private Long userId;
+    }
+
+    @Id
+    @Column(name = "match_id")
+    private Long matchId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "match_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Match match;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    // 1 = player 1 / team 1, 2 = player 2 / team 2, 0 = creator only
+    private int side;
+
+    // Copy of matches.created_at, the history sort key
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Copies of the match's filter columns, so a filtered page is still one index range scan
+    @Column(name = "game_id", nullable = false)
+    private Long gameId;
+
+    @Enumerated(EnumType.STRING)
+    private Match.MatchStatus status;
+}
@@ -0,0 +1,46 @@
+package com.familyranking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Work recorded in the same transaction as the state change that caused it and carried out later by
+ * {@link com.familyranking.outbox.StatsOutbox}. A row is deleted in the transaction that applies it.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    public enum Type { MATCH_COMPLETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    // Match id for MATCH_COMPLETED
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    // Game id: events of one game are applied in order by a single worker
+    @Column(name = "partition_key", nullable = false)
+    private Long partitionKey;
+
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Builder.Default
+    @Column(updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,37 @@
+package com.familyranking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/** Points and W/L/D a player earned in one game on one day; windowed leaderboards sum these buckets. */
+@Entity
+@Table(name = "player_daily_stats",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "game_id", "day"}),
+       indexes = @Index(name = "idx_player_daily_stats_game_day", columnList = "game_id, day"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class PlayerDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "game_id", nullable = false)
+    private Game game;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Builder.Default private int points = 0;
+    @Builder.Default private int wins   = 0;
+    @Builder.Default private int losses = 0;
+    @Builder.Default private int draws  = 0;
+}
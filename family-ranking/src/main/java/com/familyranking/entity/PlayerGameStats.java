@@ -27,4 +27,9 @@ public class PlayerGameStats {
     @Builder.Default private int wins   = 0;
     @Builder.Default private int losses = 0;
     @Builder.Default private int draws  = 0;
+
+    // Skill rating for games with a rating model; null until the first rated match
+    private Double rating;
+    private Double ratingDeviation;
+    private Double ratingVolatility;
 }
@@ -2,6 +2,7 @@ package com.familyranking.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -24,7 +25,9 @@ public class Team {
     @JoinColumn(name = "game_id", nullable = false)
     private Game game;
 
+    // Loaded for up to 100 teams per query when a list of matches or teams is mapped
     @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JoinTable(
         name = "team_members",
         joinColumns = @JoinColumn(name = "team_id"),
@@ -14,7 +14,7 @@ import java.util.List;
 @Table(name = "users")
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class User implements UserDetails {
 
     @Id
@@ -0,0 +1,148 @@
+package com.familyranking.idempotency;
+
+import com.familyranking.entity.User;
+import com.familyranking.exception.ErrorResponseWriter;
+import com.familyranking.idempotency.IdempotencyStore.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes mutating /matches requests safe to retry. The first response for a user's Idempotency-Key is
+ * stored and replayed for later requests with the same key, without running the controller again;
+ * duplicates that arrive while the first is in flight wait for its response. Reusing a key for a
+ * different method, path or body gets 422. 5xx responses are not kept, so the client can retry them.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ErrorResponseWriter errorWriter;
+
+    @Value("${app.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        boolean mutating = method == HttpMethod.POST || method == HttpMethod.PUT
+                || method == HttpMethod.PATCH || method == HttpMethod.DELETE;
+        return !mutating || request.getHeader(HEADER) == null || !request.getServletPath().startsWith("/matches/");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String clientKey = request.getHeader(HEADER);
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (clientKey.isBlank() || clientKey.length() > MAX_KEY_LENGTH) {
+            errorWriter.write(response, HttpStatus.BAD_REQUEST, "Invalid " + HEADER);
+            return;
+        }
+
+        Object principal = auth.getPrincipal();
+        String owner = principal instanceof User user ? String.valueOf(user.getId()) : auth.getName();
+        String key = owner + " " + clientKey;
+        CachedBodyRequest cached = new CachedBodyRequest(request);
+
+        CompletableFuture<StoredResponse> first;
+        try {
+            first = store.begin(key, fingerprint(cached));
+        } catch (IdempotencyStore.MismatchException e) {
+            errorWriter.write(response, HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+            return;
+        } catch (IdempotencyStore.FullException e) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            errorWriter.write(response, HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+            return;
+        }
+        if (first != null) {
+            replay(await(first), response);
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(cached, wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            store.abandon(key, null);
+            throw e;
+        }
+        StoredResponse stored = new StoredResponse(wrapper.getStatus(), wrapper.getContentType(),
+                wrapper.getContentAsByteArray());
+        if (stored.status() >= 500) {
+            store.abandon(key, stored);
+        } else {
+            store.complete(key, stored);
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    static String fingerprint(CachedBodyRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getServletPath() + "\n").getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest.digest(request.body()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> first) {
+        try {
+            return first.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        if (stored == null) {
+            errorWriter.write(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress or failed");
+            return;
+        }
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) response.setContentType(stored.contentType());
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+}
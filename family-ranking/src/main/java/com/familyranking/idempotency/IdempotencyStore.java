@@ -0,0 +1,198 @@
+package com.familyranking.idempotency;
+
+import com.familyranking.entity.IdempotencyRecord;
+import com.familyranking.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Responses of requests sent with an Idempotency-Key, bounded by entry count and TTL. Entries live in
+ * memory; with app.idempotency.persistent a key is also claimed in idempotency_keys before its request
+ * runs, so the response survives restarts and instances sharing the table never run a key twice.
+ * A key that is still in flight on this instance hands out the future of the first request.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public record StoredResponse(int status, String contentType, byte[] body) {}
+
+    private record Entry(CompletableFuture<StoredResponse> result, String fingerprint, long createdAt) {
+        boolean inFlight() {
+            return !result.isDone();
+        }
+    }
+
+    /** Every tracked key is still in flight, so a new one cannot be admitted without risking a re-run. */
+    public static class FullException extends RuntimeException {
+        FullException() {
+            super("Too many requests in flight, please retry shortly");
+        }
+    }
+
+    /** The key was first used for a request with a different method, path or body. */
+    public static class MismatchException extends RuntimeException {
+        MismatchException() {
+            super("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final int maxEntries;
+    private final boolean persistent;
+
+    // Insertion order doubles as age order, so expired entries are always at the head
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${app.idempotency.persistent:false}") boolean persistent,
+                            @Value("${app.idempotency.claim-timeout-seconds:300}") long claimTimeoutSeconds) {
+        this.repository = repository;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+        this.maxEntries = maxEntries;
+        this.persistent = persistent;
+    }
+
+    /**
+     * Claims {@code key} for the caller, returning null; the caller must then run the request and call
+     * {@link #complete} or {@link #abandon}. If the key is already known, returns the first request's result,
+     * completed with null when that request is in flight on another instance.
+     * Throws {@link MismatchException} when the key was used with another {@code fingerprint}, and
+     * {@link FullException} when the store is full of requests still in flight.
+     */
+    public CompletableFuture<StoredResponse> begin(String key, String fingerprint) {
+        Entry claimed;
+        synchronized (this) {
+            evictExpired();
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (!entry.fingerprint().equals(fingerprint)) throw new MismatchException();
+                return entry.result();
+            }
+            // Only finished responses may be dropped: forgetting an in-flight key would let a duplicate run again
+            if (entries.size() >= maxEntries && !evictOldestFinished()) {
+                throw new FullException();
+            }
+            claimed = new Entry(new CompletableFuture<>(), fingerprint, System.currentTimeMillis());
+            entries.put(key, claimed);
+        }
+        if (!persistent) return null;
+
+        IdempotencyRecord other;
+        try {
+            other = claimShared(key, fingerprint);
+        } catch (RuntimeException e) {
+            abandon(key, null);
+            throw e;
+        }
+        if (other == null) return null;
+        if (!other.getFingerprint().equals(fingerprint) || other.getStatus() == 0) {
+            synchronized (this) {
+                entries.remove(key);
+            }
+            claimed.result().complete(null);
+            if (!other.getFingerprint().equals(fingerprint)) throw new MismatchException();
+            return claimed.result();
+        }
+        claimed.result().complete(new StoredResponse(other.getStatus(), other.getContentType(), other.getBody()));
+        return claimed.result();
+    }
+
+    /** Inserts the claim row, returning null, or returns the row of whoever claimed the key first. */
+    private IdempotencyRecord claimShared(String key, String fingerprint) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            if (repository.claim(key, fingerprint, now) == 1) return null;
+            // Expired responses, and claims whose request never finished (its instance died), are taken over
+            if (repository.takeOver(key, fingerprint, now, now.minus(claimTimeout), now.minus(ttl)) == 1) return null;
+            Optional<IdempotencyRecord> first = repository.findById(key);
+            if (first.isPresent()) return first.get();
+            // Released meanwhile, so the key is free again
+        }
+        throw new IllegalStateException("Could not claim idempotency key " + key);
+    }
+
+    /** Stores the response of a claimed key and releases requests waiting on it. */
+    public void complete(String key, StoredResponse response) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (persistent) {
+            try {
+                repository.complete(key, response.status(), response.contentType(), response.body());
+            } catch (RuntimeException e) {
+                log.warn("Could not persist idempotent response for {}", key, e);
+            }
+        }
+        if (entry != null) entry.result().complete(response);
+    }
+
+    /**
+     * Forgets a claimed key so a later retry runs again. Requests already waiting get {@code response},
+     * or null when there is none to give.
+     */
+    public void abandon(String key, StoredResponse response) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.remove(key);
+        }
+        if (persistent) {
+            try {
+                repository.release(key);
+            } catch (RuntimeException e) {
+                log.warn("Could not release idempotency key {}; it is taken over once stale", key, e);
+            }
+        }
+        if (entry != null) entry.result().complete(response);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purge() {
+        synchronized (this) {
+            evictExpired();
+        }
+        if (persistent) {
+            int removed = repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+            if (removed > 0) log.debug("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    private void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttl.toMillis();
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> e = it.next();
+            if (e.getValue().createdAt() >= cutoff) break;
+            if (!e.getValue().inFlight()) it.remove();
+        }
+    }
+
+    private boolean evictOldestFinished() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (!it.next().inFlight()) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,28 @@
+package com.familyranking.job;
+
+import com.familyranking.repository.MatchParticipantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Rebuilds match_participants from matches and team_members in one set-based statement, for an admin
+ * to repair the table by hand. Existing matches are filled in by the V2 migration.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ParticipantBackfillJob {
+
+    private final MatchParticipantRepository participantRepository;
+
+    @Async
+    @Transactional
+    public void rebuild() {
+        participantRepository.deleteAllInBulk();
+        int rows = participantRepository.addForAllMatches();
+        log.info("Rebuilt {} match participant rows", rows);
+    }
+}
@@ -0,0 +1,120 @@
+package com.familyranking.job;
+
+import com.familyranking.entity.Game;
+import com.familyranking.rating.MatchResult;
+import com.familyranking.rating.Rating;
+import com.familyranking.rating.RatingCalculator;
+import com.familyranking.repository.GameRepository;
+import com.familyranking.repository.MatchRepository;
+import com.familyranking.repository.StatsJdbcRepository;
+import com.familyranking.repository.TeamRepository;
+import com.familyranking.service.impl.MatchScoring;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Recomputes player ratings by replaying completed matches in the order they were completed.
+ * Games are independent, so each game is replayed as its own task on a fork-join pool; the results
+ * are then written back in one batch per game. Team matches use today's team members.
+ * A replay holds the games' rating locks exclusively, so the stats outbox applies no match of those
+ * games meanwhile; matches still in the outbox are left to it and rated on top of the replay.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingReplayJob {
+
+    private final GameRepository gameRepository;
+    private final MatchRepository matchRepository;
+    private final TeamRepository teamRepository;
+    private final StatsJdbcRepository statsJdbcRepository;
+
+    @Value("${app.rating.replay-parallelism:0}")
+    private int parallelism;
+
+    @Async
+    @Transactional
+    public void replayAll() {
+        doReplay(gameRepository.findAll());
+    }
+
+    @Async
+    @Transactional
+    public void replay(Collection<Long> gameIds) {
+        doReplay(gameRepository.findAllById(gameIds));
+    }
+
+    private void doReplay(List<Game> games) {
+        long started = System.currentTimeMillis();
+        List<Game> rated = games.stream().filter(RatingCalculator::isRated).toList();
+        statsJdbcRepository.lockRatingsExclusive(games.stream().map(Game::getId).toList());
+        Map<Long, List<MatchResult>> resultsByGame = rated.isEmpty() ? Map.of()
+                : matchRepository.findAppliedResults(rated.stream().map(Game::getId).toList()).stream()
+                        .collect(Collectors.groupingBy(MatchResult::gameId));
+        Map<Long, List<Long>> members = new HashMap<>();
+        for (Object[] pair : teamRepository.findAllMemberIds()) {
+            members.computeIfAbsent((Long) pair[0], id -> new ArrayList<>()).add((Long) pair[1]);
+        }
+
+        List<Callable<Map<Long, Rating>>> tasks = rated.stream()
+                .<Callable<Map<Long, Rating>>>map(game ->
+                        () -> replayGame(game, resultsByGame.getOrDefault(game.getId(), List.of()), members))
+                .toList();
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        List<Map<Long, Rating>> ratings = new ArrayList<>(tasks.size());
+        try {
+            for (Future<Map<Long, Rating>> future : pool.invokeAll(tasks)) {
+                ratings.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rating replay interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rating replay failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        for (Game game : games) {
+            statsJdbcRepository.clearRatings(game.getId());
+        }
+        for (int i = 0; i < rated.size(); i++) {
+            statsJdbcRepository.updateRatings(rated.get(i).getId(), ratings.get(i));
+        }
+        log.info("Replayed ratings of {} games ({} matches) in {} ms", rated.size(),
+                resultsByGame.values().stream().mapToInt(List::size).sum(), System.currentTimeMillis() - started);
+    }
+
+    private static Map<Long, Rating> replayGame(Game game, List<MatchResult> results, Map<Long, List<Long>> members) {
+        Map<Long, Rating> ratings = new HashMap<>();
+        for (MatchResult m : results) {
+            List<Long> side1 = m.teamMatch() ? members.getOrDefault(m.team1Id(), List.of()) : List.of(m.player1Id());
+            List<Long> side2 = m.teamMatch() ? members.getOrDefault(m.team2Id(), List.of()) : List.of(m.player2Id());
+            Rating[] r1 = side1.stream().map(id -> ratings.getOrDefault(id, Rating.INITIAL)).toArray(Rating[]::new);
+            Rating[] r2 = side2.stream().map(id -> ratings.getOrDefault(id, Rating.INITIAL)).toArray(Rating[]::new);
+
+            Long side1Id = m.teamMatch() ? m.team1Id() : m.player1Id();
+            RatingCalculator.rate(game, r1, r2,
+                    MatchScoring.side1Score(m.teamMatch(), side1Id, m.winnerId(), m.score1(), m.score2()));
+
+            for (int i = 0; i < r1.length; i++) ratings.put(side1.get(i), r1[i]);
+            for (int i = 0; i < r2.length; i++) ratings.put(side2.get(i), r2[i]);
+        }
+        return ratings;
+    }
+}
@@ -0,0 +1,85 @@
+package com.familyranking.job;
+
+import com.familyranking.cache.ResourceVersions;
+import com.familyranking.entity.Game;
+import com.familyranking.entity.Match;
+import com.familyranking.repository.GameRepository;
+import com.familyranking.repository.MatchRepository;
+import com.familyranking.repository.PlayerDailyStatsRepository;
+import com.familyranking.repository.StatsJdbcRepository;
+import com.familyranking.repository.StatsJdbcRepository.StatsDelta;
+import com.familyranking.service.impl.MatchScoring;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds the daily stat buckets behind windowed leaderboards from completed match history.
+ * Matches are streamed through a DB cursor and only the buckets are held in memory.
+ * Holds the games' rating locks exclusively, like {@link RatingReplayJob}, so no outbox batch applies a
+ * match meanwhile; matches still in the outbox are left to it and counted on top of the rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StatsBackfillJob {
+
+    private static final int CLEAR_EVERY = 500;
+
+    private final MatchRepository matchRepository;
+    private final PlayerDailyStatsRepository dailyStatsRepository;
+    private final GameRepository gameRepository;
+    private final StatsJdbcRepository statsJdbcRepository;
+    private final EntityManager entityManager;
+    private final ResourceVersions versions;
+
+    private record BucketKey(Long gameId, LocalDate day) {}
+
+    @Async
+    @Transactional
+    public void rebuildDailyStats() {
+        Set<Long> gameIds = gameRepository.findAll().stream().map(Game::getId).collect(Collectors.toSet());
+        statsJdbcRepository.lockRatingsExclusive(gameIds);
+        Map<BucketKey, Map<Long, StatsDelta>> buckets = new HashMap<>();
+        int matches = 0;
+
+        try (Stream<Match> stream = matchRepository.streamApplied()) {
+            for (Match match : (Iterable<Match>) stream::iterator) {
+                LocalDateTime at = match.getCompletedAt() != null ? match.getCompletedAt() : match.getCreatedAt();
+                Map<Long, StatsDelta> bucket = buckets.computeIfAbsent(
+                        new BucketKey(match.getGame().getId(), at.toLocalDate()), k -> new HashMap<>());
+                for (MatchScoring.Share share : MatchScoring.score(match)) {
+                    Long userId = share.user().getId();
+                    bucket.merge(userId, new StatsDelta(userId, share.points(), share.wins(),
+                            share.losses(), share.draws()), StatsDelta::plus);
+                }
+                // Keep the persistence context from growing with the history
+                if (++matches % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+
+        // Games created after the lock was taken are not ours to clear
+        dailyStatsRepository.deleteByGameIds(gameIds);
+        int rows = 0;
+        for (Map.Entry<BucketKey, Map<Long, StatsDelta>> e : buckets.entrySet()) {
+            if (!gameIds.contains(e.getKey().gameId())) continue;
+            statsJdbcRepository.incrementDailyStats(e.getKey().gameId(), e.getKey().day(), e.getValue().values());
+            rows += e.getValue().size();
+        }
+        versions.bumpAllLeaderboards();
+        log.info("Rebuilt {} daily stat buckets from {} completed matches", rows, matches);
+    }
+}
@@ -0,0 +1,162 @@
+package com.familyranking.leaderboard;
+
+import com.familyranking.entity.Game.TiePolicy;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Standings of a single game kept in ranking order: points desc, wins desc, user id asc.
+ * Players level on points and wins share a score group; the game's tie policy decides
+ * how groups turn into rank numbers.
+ */
+final class GameLeaderboard {
+
+    static final Comparator<Standing> ORDER = Comparator.comparingInt(Standing::points).reversed()
+            .thenComparing(Comparator.comparingInt(Standing::wins).reversed())
+            .thenComparing(Standing::userId);
+
+    private record Score(int points, int wins) {
+        static Score of(Standing s) {
+            return new Score(s.points(), s.wins());
+        }
+    }
+
+    private static final Comparator<Score> SCORE_ORDER = Comparator.comparingInt(Score::points).reversed()
+            .thenComparing(Comparator.comparingInt(Score::wins).reversed());
+
+    private final TiePolicy tiePolicy;
+    private final Map<Long, Standing> byUser = new HashMap<>();
+    private final OrderStatisticTree<Standing> tree = new OrderStatisticTree<>(ORDER);
+    private final Map<Score, Integer> groupSizes = new HashMap<>();
+    private final OrderStatisticTree<Score> groups = new OrderStatisticTree<>(SCORE_ORDER);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    GameLeaderboard(TiePolicy tiePolicy, List<Standing> initial) {
+        this.tiePolicy = tiePolicy;
+        initial.forEach(this::replace);
+    }
+
+    /**
+     * Stores the committed totals of a player. Snapshots older than the one held
+     * (fewer matches played) are ignored, so out-of-order commits cannot roll a row back.
+     */
+    void put(Standing standing) {
+        lock.writeLock().lock();
+        try {
+            Standing current = byUser.get(standing.userId());
+            if (current == null || standing.played() >= current.played()) {
+                replace(standing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void updateProfile(Long userId, String username, String avatar) {
+        lock.writeLock().lock();
+        try {
+            Standing current = byUser.get(userId);
+            if (current != null) {
+                replace(current.withProfile(username, avatar));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            Standing current = byUser.remove(userId);
+            if (current != null) {
+                detach(current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    LeaderboardSlice slice(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return sliceAt(offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Keyset page: up to {@code limit} standings ordered strictly after {@code cursor}. */
+    LeaderboardSlice sliceAfter(Standing cursor, int limit) {
+        lock.readLock().lock();
+        try {
+            return sliceAt(tree.countAtOrBefore(cursor), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The player plus up to {@code radius} standings above and below; null when they are unranked. */
+    LeaderboardSlice sliceAround(Long userId, int radius) {
+        lock.readLock().lock();
+        try {
+            Standing current = byUser.get(userId);
+            if (current == null) return null;
+            int position = tree.countBefore(current);
+            int offset = Math.max(0, position - radius);
+            return sliceAt(offset, position - offset + radius + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private LeaderboardSlice sliceAt(int offset, int limit) {
+        List<Standing> standings = tree.range(offset, limit);
+        int[] ranks = new int[standings.size()];
+        for (int i = 0; i < ranks.length; i++) {
+            Standing s = standings.get(i);
+            if (i > 0 && tiePolicy != TiePolicy.ORDINAL && Score.of(s).equals(Score.of(standings.get(i - 1)))) {
+                ranks[i] = ranks[i - 1];
+            } else if (i > 0 && tiePolicy == TiePolicy.DENSE) {
+                ranks[i] = ranks[i - 1] + 1;
+            } else {
+                ranks[i] = rankOf(s, offset + i);
+            }
+        }
+        return new LeaderboardSlice(offset, standings, ranks, tree.size());
+    }
+
+    /** Rank number of the standing at 0-based {@code position}, in O(log n). */
+    private int rankOf(Standing s, int position) {
+        return switch (tiePolicy) {
+            case ORDINAL -> position + 1;
+            // Sorts before every player of its score group
+            case STANDARD -> tree.countBefore(new Standing(Long.MIN_VALUE, null, null, s.points(), s.wins(), 0, 0)) + 1;
+            case DENSE -> groups.countBefore(Score.of(s)) + 1;
+        };
+    }
+
+    private void replace(Standing standing) {
+        Standing previous = byUser.put(standing.userId(), standing);
+        if (previous != null) {
+            detach(previous);
+        }
+        tree.insert(standing);
+        if (groupSizes.merge(Score.of(standing), 1, Integer::sum) == 1) {
+            groups.insert(Score.of(standing));
+        }
+    }
+
+    private void detach(Standing standing) {
+        tree.remove(standing);
+        Score score = Score.of(standing);
+        if (groupSizes.merge(score, -1, Integer::sum) == 0) {
+            groupSizes.remove(score);
+            groups.remove(score);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.familyranking.leaderboard;
+
+/** Published after committed changes have been applied to a game's in-memory board. */
+public record LeaderboardChangedEvent(Long gameId) {}
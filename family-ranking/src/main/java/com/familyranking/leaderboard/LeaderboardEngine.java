@@ -0,0 +1,98 @@
+package com.familyranking.leaderboard;
+
+import com.familyranking.entity.Game;
+import com.familyranking.entity.Game.TiePolicy;
+import com.familyranking.exception.ResourceNotFoundException;
+import com.familyranking.repository.GameRepository;
+import com.familyranking.repository.PlayerGameStatsRepository;
+import com.familyranking.util.Transactions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory per-game leaderboards. A game's board is loaded from player_game_stats on first
+ * read and afterwards kept current by the write path, so rankings are served without a DB round trip.
+ * All mutations are applied after the surrounding transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardEngine {
+
+    private final GameRepository gameRepository;
+    private final PlayerGameStatsRepository statsRepository;
+    private final ApplicationEventPublisher events;
+
+    private final ConcurrentMap<Long, GameLeaderboard> boards = new ConcurrentHashMap<>();
+
+    public LeaderboardSlice slice(Long gameId, int offset, int limit) {
+        return board(gameId).slice(offset, limit);
+    }
+
+    /** Keyset page of up to {@code limit} standings ordered strictly after {@code cursor}. */
+    public LeaderboardSlice sliceAfter(Long gameId, Standing cursor, int limit) {
+        return board(gameId).sliceAfter(cursor, limit);
+    }
+
+    /** The player with up to {@code radius} neighbours on each side; empty when they are unranked. */
+    public Optional<LeaderboardSlice> sliceAround(Long gameId, Long userId, int radius) {
+        return Optional.ofNullable(board(gameId).sliceAround(userId, radius));
+    }
+
+    /** Records committed totals for players of a game. Boards not loaded yet are left alone. */
+    public void record(Long gameId, Collection<Standing> standings) {
+        Transactions.afterCommit(() -> {
+            boards.computeIfPresent(gameId, (id, board) -> {
+                standings.forEach(board::put);
+                return board;
+            });
+            events.publishEvent(new LeaderboardChangedEvent(gameId));
+        });
+    }
+
+    public void updateProfile(Long userId, String username, String avatar) {
+        Transactions.afterCommit(() -> boards.forEach((gameId, board) -> {
+            board.updateProfile(userId, username, avatar);
+            events.publishEvent(new LeaderboardChangedEvent(gameId));
+        }));
+    }
+
+    public void removeUser(Long userId) {
+        Transactions.afterCommit(() -> boards.forEach((gameId, board) -> {
+            board.remove(userId);
+            events.publishEvent(new LeaderboardChangedEvent(gameId));
+        }));
+    }
+
+    public void evictGame(Long gameId) {
+        Transactions.afterCommit(() -> boards.remove(gameId));
+    }
+
+    private GameLeaderboard board(Long gameId) {
+        GameLeaderboard board = boards.get(gameId);
+        if (board != null) return board;
+        // Loading inside computeIfAbsent makes concurrent record() calls for this game wait for the
+        // load, so a commit racing with the initial read is applied on top of it instead of lost.
+        return boards.computeIfAbsent(gameId, this::load);
+    }
+
+    private GameLeaderboard load(Long gameId) {
+        Game game = gameRepository.findById(gameId)
+                .orElseThrow(() -> new ResourceNotFoundException("Game not found"));
+        List<Standing> initial = statsRepository.findStandings(gameId).stream()
+                .map(r -> new Standing(r.getUserId(), r.getUsername(), r.getAvatar(),
+                        r.getPoints(), r.getWins(), r.getLosses(), r.getDraws()))
+                .toList();
+        log.debug("Loaded leaderboard for game {} ({} players)", gameId, initial.size());
+        TiePolicy tiePolicy = game.getTiePolicy() != null ? game.getTiePolicy() : TiePolicy.STANDARD;
+        return new GameLeaderboard(tiePolicy, initial);
+    }
+}
@@ -0,0 +1,15 @@
+package com.familyranking.leaderboard;
+
+import java.util.List;
+
+/**
+ * Consecutive standings of a game starting at 0-based position {@code offset}, out of {@code total},
+ * with their rank numbers under the game's tie policy.
+ */
+public record LeaderboardSlice(int offset, List<Standing> standings, int[] ranks, int total) {
+
+    /** True when standings exist past the end of this slice. */
+    public boolean hasMore() {
+        return offset + standings.size() < total;
+    }
+}
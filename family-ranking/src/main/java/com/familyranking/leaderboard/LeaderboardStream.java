@@ -0,0 +1,219 @@
+package com.familyranking.leaderboard;
+
+import com.familyranking.dto.response.Response;
+import com.familyranking.service.MatchService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes live leaderboard changes to SSE subscribers. A subscriber first gets a "snapshot" event with
+ * the full ranking, then "delta" events carrying only the entries whose rank or stats changed.
+ * Changes are coalesced: a game is diffed and pushed at most once per flush interval, however many
+ * matches were accepted in between. Emitters are async, so no request thread is held per subscriber.
+ * Sends run on a small pool of their own rather than the shared scheduler thread; a subscriber still
+ * busy with its previous event when the next one is ready is dropped and reconnects for a snapshot.
+ */
+@Component
+@Slf4j
+public class LeaderboardStream {
+
+    private final MatchService matchService;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor senders;
+
+    public LeaderboardStream(MatchService matchService,
+                             @Value("${app.leaderboard.stream-timeout-ms:1800000}") long timeoutMs,
+                             @Value("${app.leaderboard.stream-threads:2}") int threads,
+                             @Value("${app.leaderboard.stream-queue-capacity:1000}") int queueCapacity) {
+        this.matchService = matchService;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadNo = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "leaderboard-sse-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * One event in flight per subscriber, so deltas arrive in order. {@code busy} also guards completing
+     * a dropped subscriber: the emitter's lock is held for a whole send, so only an idle one is closed.
+     */
+    private record Subscriber(SseEmitter emitter, AtomicBoolean busy, AtomicBoolean dropped) {
+        Subscriber(SseEmitter emitter) {
+            this(emitter, new AtomicBoolean(), new AtomicBoolean());
+        }
+
+        /** Closes the stream now if idle, otherwise its sender does once the current event is out. */
+        void drop() {
+            dropped.set(true);
+            closeIfDropped();
+        }
+
+        /** Called by the holder of the slot when its send is done. */
+        void release() {
+            busy.set(false);
+            closeIfDropped();
+        }
+
+        // Whoever wins the slot after a drop closes the stream; the client reconnects for a snapshot
+        private void closeIfDropped() {
+            if (dropped.get() && busy.compareAndSet(false, true)) emitter.complete();
+        }
+    }
+
+    private static final class Channel {
+        final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        final AtomicBoolean dirty = new AtomicBoolean();
+        // Guarded by the channel's monitor
+        Map<Long, Response.RankingEntry> lastSent;
+        boolean closed;
+    }
+
+    private final ConcurrentMap<Long, Channel> channels = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(Long gameId) {
+        // Fails fast with 404 for an unknown game before a channel is created
+        matchService.getRanking(gameId);
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        while (true) {
+            Channel channel = channels.computeIfAbsent(gameId, id -> new Channel());
+            // Under the channel lock no delta can be computed between this snapshot and joining the channel
+            synchronized (channel) {
+                if (channel.closed) continue;
+                List<Response.RankingEntry> snapshot = matchService.getRanking(gameId);
+                if (channel.lastSent == null) {
+                    channel.lastSent = index(snapshot);
+                }
+                Subscriber subscriber = new Subscriber(emitter);
+                emitter.onCompletion(() -> channel.subscribers.remove(subscriber));
+                emitter.onTimeout(emitter::complete);
+                emitter.onError(e -> channel.subscribers.remove(subscriber));
+                try {
+                    emitter.send(SseEmitter.event().name("snapshot").data(snapshot));
+                } catch (IOException e) {
+                    emitter.completeWithError(e);
+                    return emitter;
+                }
+                channel.subscribers.add(subscriber);
+                return emitter;
+            }
+        }
+    }
+
+    @EventListener
+    public void onLeaderboardChanged(LeaderboardChangedEvent event) {
+        Channel channel = channels.get(event.gameId());
+        if (channel != null) {
+            channel.dirty.set(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.leaderboard.stream-interval-ms:1000}")
+    public void flush() {
+        channels.forEach((gameId, channel) -> {
+            synchronized (channel) {
+                if (channel.subscribers.isEmpty()) {
+                    close(gameId, channel);
+                    return;
+                }
+                if (channel.dirty.getAndSet(false)) {
+                    push(gameId, channel);
+                }
+            }
+        });
+    }
+
+    private void push(Long gameId, Channel channel) {
+        Map<Long, Response.RankingEntry> current;
+        try {
+            current = index(matchService.getRanking(gameId));
+        } catch (RuntimeException e) {
+            // Game deleted meanwhile: end the stream
+            log.debug("Closing leaderboard stream for game {}: {}", gameId, e.getMessage());
+            channel.subscribers.forEach(Subscriber::drop);
+            close(gameId, channel);
+            return;
+        }
+        Response.RankingDelta delta = diff(channel.lastSent, current);
+        channel.lastSent = current;
+        if (delta.getChanged().isEmpty() && delta.getRemoved().isEmpty()) return;
+
+        for (Subscriber subscriber : channel.subscribers) {
+            if (!subscriber.busy().compareAndSet(false, true)) {
+                log.debug("Dropping slow leaderboard subscriber of game {}", gameId);
+                channel.subscribers.remove(subscriber);
+                subscriber.drop();
+                continue;
+            }
+            try {
+                senders.execute(() -> send(channel, subscriber, delta));
+            } catch (RejectedExecutionException e) {
+                log.debug("Dropping leaderboard subscriber of game {}: send queue full", gameId);
+                channel.subscribers.remove(subscriber);
+                subscriber.drop();
+                subscriber.release();
+            }
+        }
+    }
+
+    private static void send(Channel channel, Subscriber subscriber, Response.RankingDelta delta) {
+        try {
+            subscriber.emitter().send(SseEmitter.event().name("delta").data(delta));
+        } catch (IOException | IllegalStateException e) {
+            channel.subscribers.remove(subscriber);
+            subscriber.emitter().completeWithError(e);
+            return;
+        }
+        subscriber.release();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+
+    /** Caller holds the channel lock; a subscriber racing with this retries on a fresh channel. */
+    private void close(Long gameId, Channel channel) {
+        channel.closed = true;
+        channels.remove(gameId, channel);
+    }
+
+    private static Response.RankingDelta diff(Map<Long, Response.RankingEntry> before,
+                                              Map<Long, Response.RankingEntry> after) {
+        List<Response.RankingEntry> changed = new ArrayList<>();
+        after.forEach((userId, entry) -> {
+            if (!Objects.equals(before.get(userId), entry)) changed.add(entry);
+        });
+        List<Long> removed = before.keySet().stream().filter(id -> !after.containsKey(id)).toList();
+        return Response.RankingDelta.builder().changed(changed).removed(removed).build();
+    }
+
+    private static Map<Long, Response.RankingEntry> index(List<Response.RankingEntry> ranking) {
+        Map<Long, Response.RankingEntry> byUser = new HashMap<>(ranking.size() * 2);
+        ranking.forEach(e -> byUser.put(e.getUserId(), e));
+        return byUser;
+    }
+}
@@ -0,0 +1,154 @@
+package com.familyranking.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Size-augmented treap: insert, remove, rank-of-key and select-by-position in O(log n).
+ * Not thread-safe – callers guard access.
+ */
+final class OrderStatisticTree<K> {
+
+    private static final class Node<K> {
+        final K key;
+        final int priority;
+        Node<K> left;
+        Node<K> right;
+        int size = 1;
+
+        Node(K key, int priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+    }
+
+    private final Comparator<? super K> comparator;
+    private final Random random = new Random();
+    private Node<K> root;
+
+    OrderStatisticTree(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(K key) {
+        root = insert(root, key);
+    }
+
+    void remove(K key) {
+        root = remove(root, key);
+    }
+
+    /** Number of keys strictly before {@code key}, i.e. its 0-based position if present. */
+    int countBefore(K key) {
+        return count(key, false);
+    }
+
+    /** Number of keys before or equal to {@code key}: the position a keyset page after it starts at. */
+    int countAtOrBefore(K key) {
+        return count(key, true);
+    }
+
+    private int count(K key, boolean inclusive) {
+        int count = 0;
+        Node<K> n = root;
+        while (n != null) {
+            int c = comparator.compare(key, n.key);
+            if (c < 0 || (c == 0 && !inclusive)) {
+                n = n.left;
+            } else {
+                count += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return count;
+    }
+
+    /** Up to {@code limit} keys in order, starting at 0-based position {@code offset}. */
+    List<K> range(int offset, int limit) {
+        List<K> out = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        collect(root, offset, limit, out);
+        return out;
+    }
+
+    private void collect(Node<K> n, int skip, int limit, List<K> out) {
+        if (n == null || out.size() >= limit) return;
+        int leftSize = size(n.left);
+        if (skip < leftSize) collect(n.left, skip, limit, out);
+        if (out.size() >= limit) return;
+        if (skip <= leftSize) out.add(n.key);
+        collect(n.right, Math.max(0, skip - leftSize - 1), limit, out);
+    }
+
+    private Node<K> insert(Node<K> n, K key) {
+        if (n == null) return new Node<>(key, random.nextInt());
+        if (comparator.compare(key, n.key) < 0) {
+            n.left = insert(n.left, key);
+            update(n);
+            if (n.left.priority > n.priority) n = rotateRight(n);
+        } else {
+            n.right = insert(n.right, key);
+            update(n);
+            if (n.right.priority > n.priority) n = rotateLeft(n);
+        }
+        return n;
+    }
+
+    private Node<K> remove(Node<K> n, K key) {
+        if (n == null) return null;
+        int c = comparator.compare(key, n.key);
+        if (c < 0) {
+            n.left = remove(n.left, key);
+        } else if (c > 0) {
+            n.right = remove(n.right, key);
+        } else {
+            return merge(n.left, n.right);
+        }
+        update(n);
+        return n;
+    }
+
+    private Node<K> merge(Node<K> a, Node<K> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private Node<K> rotateRight(Node<K> n) {
+        Node<K> l = n.left;
+        n.left = l.right;
+        update(n);
+        l.right = n;
+        update(l);
+        return l;
+    }
+
+    private Node<K> rotateLeft(Node<K> n) {
+        Node<K> r = n.right;
+        n.right = r.left;
+        update(n);
+        r.left = n;
+        update(r);
+        return r;
+    }
+
+    private static <K> void update(Node<K> n) {
+        n.size = 1 + size(n.left) + size(n.right);
+    }
+
+    private static <K> int size(Node<K> n) {
+        return n == null ? 0 : n.size;
+    }
+}
@@ -0,0 +1,29 @@
+package com.familyranking.leaderboard;
+
+import com.familyranking.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/** Opaque keyset cursor over the leaderboard order (points, wins, user id). */
+public final class RankingCursor {
+
+    private RankingCursor() {}
+
+    public static String encode(Standing last) {
+        String raw = last.points() + ":" + last.wins() + ":" + last.userId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decodes to a key-only standing that sorts exactly where the cursor's row does. */
+    public static Standing decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) throw new IllegalArgumentException();
+            return new Standing(Long.parseLong(parts[2]), null, null,
+                    Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), 0, 0);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid ranking cursor");
+        }
+    }
+}
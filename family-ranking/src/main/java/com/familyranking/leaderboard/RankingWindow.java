@@ -0,0 +1,21 @@
+package com.familyranking.leaderboard;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/** Period a leaderboard covers. Everything but ALL is summed from daily stat buckets. */
+public enum RankingWindow {
+    ALL, WEEK, MONTH, SEASON;
+
+    /** First day of the current period containing {@code today}; seasons are {@code seasonMonths}-month blocks from January. */
+    public LocalDate start(LocalDate today, int seasonMonths) {
+        return switch (this) {
+            case ALL -> LocalDate.MIN;
+            case WEEK -> today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> today.withDayOfMonth(1);
+            case SEASON -> today.withDayOfMonth(1)
+                    .withMonth((today.getMonthValue() - 1) / seasonMonths * seasonMonths + 1);
+        };
+    }
+}
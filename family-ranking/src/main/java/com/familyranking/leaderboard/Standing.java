@@ -0,0 +1,15 @@
+package com.familyranking.leaderboard;
+
+/** Absolute per-game totals of one player, as committed to player_game_stats. */
+public record Standing(Long userId, String username, String avatar,
+                       int points, int wins, int losses, int draws) {
+
+    /** Matches played – grows by one per completed match, so it orders snapshots of the same row. */
+    public int played() {
+        return wins + losses + draws;
+    }
+
+    Standing withProfile(String newUsername, String newAvatar) {
+        return new Standing(userId, newUsername, newAvatar, points, wins, losses, draws);
+    }
+}
@@ -0,0 +1,125 @@
+package com.familyranking.outbox;
+
+import com.familyranking.cache.ResourceVersions;
+import com.familyranking.entity.Game;
+import com.familyranking.entity.Match;
+import com.familyranking.entity.User;
+import com.familyranking.leaderboard.LeaderboardEngine;
+import com.familyranking.leaderboard.Standing;
+import com.familyranking.rating.Rating;
+import com.familyranking.rating.RatingCalculator;
+import com.familyranking.repository.HeadToHeadRepository;
+import com.familyranking.repository.StatsJdbcRepository;
+import com.familyranking.repository.StatsJdbcRepository.StatsDelta;
+import com.familyranking.repository.StatsJdbcRepository.StatsTotals;
+import com.familyranking.security.PrincipalCache;
+import com.familyranking.service.impl.MatchScoring;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/** Projects completed matches into the derived stats tables and the in-memory leaderboard. */
+@Component
+@RequiredArgsConstructor
+public class MatchStatsProjection {
+
+    private final StatsJdbcRepository statsJdbcRepository;
+    private final HeadToHeadRepository headToHeadRepository;
+    private final LeaderboardEngine leaderboard;
+    private final ResourceVersions versions;
+    private final PrincipalCache principalCache;
+
+    /**
+     * Takes the locks a batch of {@link #apply} calls needs up front, in a deadlock-free order: the games'
+     * rating locks, so a replay cannot interleave, then the players' rows.
+     */
+    public void lockForBatch(Collection<Long> gameIds, Collection<Long> matchIds) {
+        statsJdbcRepository.lockRatingsShared(gameIds);
+        statsJdbcRepository.lockPlayers(matchIds);
+    }
+
+    /** Applies a completed match to player_game_stats, the daily buckets, user totals, ratings and head-to-head records. */
+    public void apply(Match match) {
+        Game game = match.getGame();
+        LocalDate day = match.getCompletedAt().toLocalDate();
+        Map<Long, User> users = new HashMap<>();
+        // Sorted by user id so concurrent projections lock rows in the same order
+        Map<Long, StatsDelta> deltas = new TreeMap<>();
+        for (MatchScoring.Share share : MatchScoring.score(match)) {
+            User user = share.user();
+            users.put(user.getId(), user);
+            deltas.merge(user.getId(), new StatsDelta(user.getId(), share.points(), share.wins(),
+                    share.losses(), share.draws()), StatsDelta::plus);
+        }
+
+        // One statement per table for all players, incremented in the database
+        Map<Long, StatsTotals> totals = new HashMap<>();
+        for (StatsTotals t : statsJdbcRepository.incrementGameStats(game.getId(), deltas.values())) {
+            totals.put(t.userId(), t);
+        }
+        statsJdbcRepository.incrementDailyStats(game.getId(), day, deltas.values());
+        statsJdbcRepository.incrementUserTotals(deltas.values());
+        applyRatings(match, totals);
+        applyHeadToHead(match);
+
+        List<Standing> changed = new ArrayList<>();
+        for (StatsTotals t : totals.values()) {
+            User user = users.get(t.userId());
+            changed.add(new Standing(user.getId(), user.getUsername(), user.getAvatar(),
+                    t.points(), t.wins(), t.losses(), t.draws()));
+        }
+        leaderboard.record(game.getId(), changed);
+        // Cached principals carry the global totals shown on profiles
+        principalCache.evict(users.values().stream().map(User::getUsername).toList());
+        versions.bumpLeaderboard(game.getId());
+    }
+
+    private void applyRatings(Match match, Map<Long, StatsTotals> totals) {
+        if (!RatingCalculator.isRated(match.getGame())) return;
+        List<StatsTotals> side1 = sideTotals(
+                match.isTeamMatch() ? match.getTeam1().getMembers() : List.of(match.getPlayer1()), totals);
+        List<StatsTotals> side2 = sideTotals(
+                match.isTeamMatch() ? match.getTeam2().getMembers() : List.of(match.getPlayer2()), totals);
+        Rating[] ratings1 = side1.stream().map(MatchStatsProjection::ratingOf).toArray(Rating[]::new);
+        Rating[] ratings2 = side2.stream().map(MatchStatsProjection::ratingOf).toArray(Rating[]::new);
+
+        RatingCalculator.rate(match.getGame(), ratings1, ratings2, MatchScoring.side1Score(match));
+
+        Map<Long, Rating> updated = new HashMap<>();
+        for (int i = 0; i < ratings1.length; i++) updated.put(side1.get(i).userId(), ratings1[i]);
+        for (int i = 0; i < ratings2.length; i++) updated.put(side2.get(i).userId(), ratings2[i]);
+        statsJdbcRepository.updateRatings(match.getGame().getId(), updated);
+    }
+
+    private void applyHeadToHead(Match match) {
+        // Individual records only: team results are shared by the whole side
+        if (match.isTeamMatch()) return;
+        Long p1 = match.getPlayer1().getId();
+        Long p2 = match.getPlayer2().getId();
+        if (p1.equals(p2)) return;
+        Long lowId = Math.min(p1, p2);
+        Long highId = Math.max(p1, p2);
+        Long winnerId = MatchScoring.winnerId(match);
+        HeadToHeadRepository.Result result = lowId.equals(winnerId) ? HeadToHeadRepository.Result.LOW_WON
+                : highId.equals(winnerId) ? HeadToHeadRepository.Result.HIGH_WON
+                : HeadToHeadRepository.Result.DRAW;
+        headToHeadRepository.record(match.getGame().getId(), lowId, highId, result,
+                match.getId(), match.getCompletedAt());
+    }
+
+    private static List<StatsTotals> sideTotals(Collection<User> players, Map<Long, StatsTotals> totals) {
+        return players.stream().map(u -> totals.get(u.getId())).filter(Objects::nonNull).toList();
+    }
+
+    private static Rating ratingOf(StatsTotals totals) {
+        return Rating.of(totals.rating(), totals.ratingDeviation(), totals.ratingVolatility());
+    }
+}
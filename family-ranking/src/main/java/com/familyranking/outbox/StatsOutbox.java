@@ -0,0 +1,246 @@
+package com.familyranking.outbox;
+
+import com.familyranking.entity.Match;
+import com.familyranking.entity.Match.MatchStatus;
+import com.familyranking.entity.OutboxEvent;
+import com.familyranking.repository.MatchRepository;
+import com.familyranking.repository.OutboxEventRepository;
+import com.familyranking.util.Transactions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for match stats. Accepting a match only commits the state change plus an
+ * {@link OutboxEvent}; a fixed pool of workers drains the events in batches and applies them through
+ * {@link MatchStatsProjection}. Events are split into lanes by game id and each lane is drained by one
+ * worker at a time, so a game's matches are applied in order. Applying and deleting an event share
+ * a transaction, which makes every event take effect exactly once.
+ */
+@Component
+@Slf4j
+public class StatsOutbox {
+
+    private final OutboxEventRepository outboxRepository;
+    private final MatchRepository matchRepository;
+    private final MatchStatsProjection projection;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int lanes;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration awaitTimeout;
+
+    private final ExecutorService workers;
+    private final AtomicBoolean[] running;
+    private final AtomicBoolean[] dirty;
+    // Matches whose accepting request waits to read its own writes
+    private final ConcurrentMap<Long, CompletableFuture<Void>> awaited = new ConcurrentHashMap<>();
+
+    private final Counter processed;
+    private final Counter failed;
+    private final Timer batchTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public StatsOutbox(OutboxEventRepository outboxRepository,
+                       MatchRepository matchRepository,
+                       MatchStatsProjection projection,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.workers:2}") int workers,
+                       @Value("${app.outbox.batch-size:100}") int batchSize,
+                       @Value("${app.outbox.max-attempts:5}") int maxAttempts,
+                       @Value("${app.outbox.await-timeout-ms:2000}") long awaitTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.matchRepository = matchRepository;
+        this.projection = projection;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lanes = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.awaitTimeout = Duration.ofMillis(awaitTimeoutMs);
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "stats-outbox-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.running = new AtomicBoolean[workers];
+        this.dirty = new AtomicBoolean[workers];
+        for (int i = 0; i < workers; i++) {
+            running[i] = new AtomicBoolean();
+            dirty[i] = new AtomicBoolean();
+        }
+
+        this.processed = meterRegistry.counter("outbox.events.processed");
+        this.failed = meterRegistry.counter("outbox.events.failed");
+        this.batchTimer = meterRegistry.timer("outbox.batch");
+        Gauge.builder("outbox.events.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("outbox.lag", lagMillis, AtomicLong::get).baseUnit("milliseconds")
+                .description("Age of the oldest pending event").register(meterRegistry);
+    }
+
+    /**
+     * Records that a match was completed, inside the caller's transaction. With {@code awaitable}
+     * the caller may block on {@link #await(Long)} once that transaction has committed.
+     */
+    public void matchCompleted(Match match, boolean awaitable) {
+        Long matchId = match.getId();
+        Long gameId = match.getGame().getId();
+        outboxRepository.save(OutboxEvent.builder()
+                .type(OutboxEvent.Type.MATCH_COMPLETED)
+                .aggregateId(matchId)
+                .partitionKey(gameId)
+                .build());
+        if (awaitable) {
+            awaited.put(matchId, new CompletableFuture<>());
+            Transactions.afterRollback(() -> awaited.remove(matchId));
+        }
+        Transactions.afterCommit(() -> schedule(lane(gameId)));
+    }
+
+    /** Waits up to the configured timeout for a match's stats to be applied (read-your-writes). */
+    public void await(Long matchId) {
+        CompletableFuture<Void> done = awaited.get(matchId);
+        if (done == null) return;
+        try {
+            done.get(awaitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Stats of match {} not applied within {}", matchId, awaitTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Never completed exceptionally
+        } finally {
+            awaited.remove(matchId);
+        }
+    }
+
+    /** Safety net for wake-ups lost to restarts or failures; also refreshes the backlog gauges. */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        long count = outboxRepository.countByAttemptsLessThan(maxAttempts);
+        pending.set(count);
+        LocalDateTime oldest = count == 0 ? null : outboxRepository.findOldestPending(maxAttempts);
+        lagMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+        if (count > 0) {
+            for (int lane = 0; lane < lanes; lane++) {
+                schedule(lane);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    private int lane(Long gameId) {
+        return (int) Math.floorMod(gameId, (long) lanes);
+    }
+
+    private void schedule(int lane) {
+        dirty[lane].set(true);
+        if (running[lane].compareAndSet(false, true)) {
+            workers.execute(() -> drain(lane));
+        }
+    }
+
+    private void drain(int lane) {
+        try {
+            while (dirty[lane].getAndSet(false)) {
+                while (processBatch(lane, batchSize) == batchSize) {
+                    // keep draining while batches come back full
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox lane {} stopped, will retry on the next poll", lane, e);
+        } finally {
+            running[lane].set(false);
+            // A wake-up that arrived after the last check must not be lost
+            if (dirty[lane].get()) {
+                schedule(lane);
+            }
+        }
+    }
+
+    /** Applies up to {@code limit} events of a lane in one transaction; returns how many were claimed. */
+    private int processBatch(int lane, int limit) {
+        Long[] current = new Long[1];
+        List<Long> matchIds;
+        Timer.Sample sample = Timer.start();
+        try {
+            matchIds = transactionTemplate.execute(status -> {
+                List<OutboxEvent> events = outboxRepository.claim(lane, lanes, maxAttempts, limit);
+                projection.lockForBatch(events.stream().map(OutboxEvent::getPartitionKey).toList(),
+                        events.stream().map(OutboxEvent::getAggregateId).toList());
+                for (OutboxEvent event : events) {
+                    current[0] = event.getId();
+                    handle(event);
+                }
+                outboxRepository.deleteAllInBatch(events);
+                return events.stream().map(OutboxEvent::getAggregateId).toList();
+            });
+        } catch (RuntimeException e) {
+            failed.increment();
+            if (limit > 1) {
+                // Retry one event per transaction so a single bad event cannot hold back the rest
+                log.warn("Outbox batch on lane {} failed, retrying events one by one", lane, e);
+                int claimed = 0;
+                for (int i = 0; i < limit; i++) {
+                    int n = processBatch(lane, 1);
+                    if (n == 0) break;
+                    claimed += n;
+                }
+                return claimed;
+            }
+            if (current[0] == null) throw e;
+            log.warn("Outbox event {} failed", current[0], e);
+            String error = String.valueOf(e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.recordFailure(
+                    current[0], error.length() > 1000 ? error.substring(0, 1000) : error));
+            return 1;
+        }
+        sample.stop(batchTimer);
+        processed.increment(matchIds.size());
+        for (Long matchId : matchIds) {
+            CompletableFuture<Void> done = awaited.remove(matchId);
+            if (done != null) done.complete(null);
+        }
+        return matchIds.size();
+    }
+
+    private void handle(OutboxEvent event) {
+        if (event.getType() == OutboxEvent.Type.MATCH_COMPLETED) {
+            // The match may have been deleted since; there is nothing to apply then
+            matchRepository.findById(event.getAggregateId())
+                    .filter(m -> m.getStatus() == MatchStatus.COMPLETED)
+                    .ifPresent(projection::apply);
+        }
+    }
+}
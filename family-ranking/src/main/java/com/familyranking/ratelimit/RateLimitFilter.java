@@ -0,0 +1,126 @@
+package com.familyranking.ratelimit;
+
+import com.familyranking.entity.User;
+import com.familyranking.exception.ErrorResponseWriter;
+import com.familyranking.ratelimit.RateLimitProperties.Rule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket limits for the routes configured under app.rate-limit.rules. Runs right after
+ * JwtAuthFilter so authenticated calls are metered per user and anonymous ones (login, register)
+ * per remote address. server.forward-headers-strategy makes that the client's behind a trusted proxy.
+ * Full buckets are swept periodically, so memory follows the clients active in the last refill window.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record CompiledRule(Rule rule, long interval, long tolerance, Counter rejected) {}
+
+    private final boolean enabled;
+    private final int maxKeys;
+    private final List<CompiledRule> rules;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ErrorResponseWriter errorWriter;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry,
+                           ErrorResponseWriter errorWriter) {
+        this.errorWriter = errorWriter;
+        this.enabled = properties.enabled();
+        this.maxKeys = properties.maxKeys();
+        this.rules = properties.rules().stream().map(rule -> {
+            long interval = TimeUnit.MINUTES.toNanos(1) / Math.max(1, rule.perMinute());
+            long tolerance = (Math.max(1, rule.capacity()) - 1) * interval;
+            Counter rejected = meterRegistry.counter("ratelimit.rejected", "route",
+                    (rule.method() != null ? rule.method() + " " : "") + rule.path());
+            return new CompiledRule(rule, interval, tolerance, rejected);
+        }).toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || rules.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        int index = match(request);
+        if (index < 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        CompiledRule rule = rules.get(index);
+        TokenBucket bucket = bucket(index + " " + client(request));
+        long wait = bucket == null ? 0 : bucket.take(System.nanoTime(), rule.interval(), rule.tolerance());
+        if (wait > 0) {
+            rule.rejected().increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait) + 1)));
+            errorWriter.write(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests, please slow down");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /** Drops full buckets; a client coming back later starts with a full one anyway. */
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(b -> b.idle(now));
+    }
+
+    private int match(HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (int i = 0; i < rules.size(); i++) {
+            Rule rule = rules.get(i).rule();
+            if ((rule.method() == null || rule.method().equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(rule.path(), path)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** The client's bucket, or null when the table is full of active clients (the request is let through). */
+    private TokenBucket bucket(String key) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) return bucket;
+        if (buckets.size() >= maxKeys) {
+            sweep();
+            if (buckets.size() >= maxKeys) return null;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket());
+    }
+
+    private static String client(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof User user) {
+            return "user:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
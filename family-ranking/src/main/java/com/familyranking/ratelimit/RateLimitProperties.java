@@ -0,0 +1,31 @@
+package com.familyranking.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Per-route request limits (app.rate-limit). The first rule matching a request applies; each client,
+ * a user id when authenticated and the remote address otherwise, gets its own bucket per rule.
+ * At most {@code maxKeys} buckets are tracked; beyond that idle ones are dropped and new clients
+ * go unmetered rather than growing the table.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") int maxKeys,
+        List<Rule> rules) {
+
+    /**
+     * @param method    HTTP method, or null for any
+     * @param path      Ant-style pattern below the context path, e.g. {@code /matches/**}
+     * @param capacity  burst size: requests allowed back to back
+     * @param perMinute sustained rate the bucket refills at
+     */
+    public record Rule(String method, String path, int capacity, int perMinute) {}
+
+    public List<Rule> rules() {
+        return rules != null ? rules : List.of();
+    }
+}
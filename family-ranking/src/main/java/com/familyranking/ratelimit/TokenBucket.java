@@ -0,0 +1,31 @@
+package com.familyranking.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket stored as a single timestamp, the time at which it would be full again
+ * (the GCRA form). Taking a token pushes that time forward by one refill interval; a bucket whose
+ * time has passed is full and can be dropped without losing anything.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Takes a token at {@code now} (nanos) if one is available and returns 0; otherwise returns how
+     * many nanos until one is. {@code tolerance} is {@code (capacity - 1) * interval}.
+     */
+    long take(long now, long interval, long tolerance) {
+        while (true) {
+            long current = fullAt.get();
+            long base = Math.max(current, now);
+            long wait = base - now - tolerance;
+            if (wait > 0) return wait;
+            if (fullAt.compareAndSet(current, base + interval)) return 0;
+        }
+    }
+
+    boolean idle(long now) {
+        return fullAt.get() <= now;
+    }
+}
@@ -0,0 +1,6 @@
+package com.familyranking.rating;
+
+/** The columns of a completed match a rating replay needs, without loading entities. */
+public record MatchResult(Long matchId, Long gameId, boolean teamMatch,
+                          Long player1Id, Long player2Id, Long team1Id, Long team2Id,
+                          Long winnerId, Integer score1, Integer score2) {}
@@ -0,0 +1,14 @@
+package com.familyranking.rating;
+
+/** A player's skill estimate. Elo only uses {@code rating}; Glicko-2 also tracks deviation and volatility. */
+public record Rating(double rating, double deviation, double volatility) {
+
+    public static final Rating INITIAL = new Rating(1500, 350, 0.06);
+
+    /** Rating stored on a stats row; null columns mean the player has not been rated yet. */
+    public static Rating of(Double rating, Double deviation, Double volatility) {
+        return new Rating(rating != null ? rating : INITIAL.rating,
+                deviation != null ? deviation : INITIAL.deviation,
+                volatility != null ? volatility : INITIAL.volatility);
+    }
+}
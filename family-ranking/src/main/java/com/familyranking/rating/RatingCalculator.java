@@ -0,0 +1,119 @@
+package com.familyranking.rating;
+
+import com.familyranking.entity.Game;
+import com.familyranking.entity.Game.RatingModel;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Elo and Glicko-2 updates for one match between two sides. A side is a single player or a team;
+ * a team plays as the average of its members, and every member moves against the opposing average.
+ * Each match is treated as its own Glicko-2 rating period.
+ */
+public final class RatingCalculator {
+
+    public static final double DEFAULT_K = 32;
+    public static final double DEFAULT_TAU = 0.5;
+
+    private static final double GLICKO_SCALE = 173.7178;
+    private static final double EPSILON = 0.000001;
+
+    private RatingCalculator() {}
+
+    public static boolean isRated(Game game) {
+        return game.getRatingModel() != null && game.getRatingModel() != RatingModel.NONE;
+    }
+
+    /**
+     * Rates a match in place: entries of {@code side1} and {@code side2} are replaced by the updated ratings.
+     * {@code score1} is side 1's result: 1 win, 0.5 draw, 0 loss.
+     */
+    public static void rate(Game game, Rating[] side1, Rating[] side2, double score1) {
+        if (side1.length == 0 || side2.length == 0) return;
+        Rating avg1 = average(side1);
+        Rating avg2 = average(side2);
+        if (game.getRatingModel() == RatingModel.ELO) {
+            double k = game.getRatingK() != null ? game.getRatingK() : DEFAULT_K;
+            double expected1 = 1 / (1 + Math.pow(10, (avg2.rating() - avg1.rating()) / 400));
+            double delta = k * (score1 - expected1);
+            shift(side1, delta);
+            shift(side2, -delta);
+        } else if (game.getRatingModel() == RatingModel.GLICKO2) {
+            double tau = game.getRatingTau() != null ? game.getRatingTau() : DEFAULT_TAU;
+            for (int i = 0; i < side1.length; i++) side1[i] = glicko2(side1[i], avg2, score1, tau);
+            for (int i = 0; i < side2.length; i++) side2[i] = glicko2(side2[i], avg1, 1 - score1, tau);
+        }
+    }
+
+    private static void shift(Rating[] side, double delta) {
+        for (int i = 0; i < side.length; i++) {
+            side[i] = new Rating(side[i].rating() + delta, side[i].deviation(), side[i].volatility());
+        }
+    }
+
+    private static Rating average(Rating[] side) {
+        double r = 0, rd = 0, vol = 0;
+        for (Rating rating : side) {
+            r += rating.rating();
+            rd += rating.deviation();
+            vol += rating.volatility();
+        }
+        return new Rating(r / side.length, rd / side.length, vol / side.length);
+    }
+
+    /** Glickman's Glicko-2 step for a rating period containing a single game. */
+    static Rating glicko2(Rating player, Rating opponent, double score, double tau) {
+        double mu = (player.rating() - 1500) / GLICKO_SCALE;
+        double phi = player.deviation() / GLICKO_SCALE;
+        double muJ = (opponent.rating() - 1500) / GLICKO_SCALE;
+        double phiJ = opponent.deviation() / GLICKO_SCALE;
+
+        double g = 1 / Math.sqrt(1 + 3 * phiJ * phiJ / (Math.PI * Math.PI));
+        double expected = 1 / (1 + Math.exp(-g * (mu - muJ)));
+        double v = 1 / (g * g * expected * (1 - expected));
+        double delta = v * g * (score - expected);
+
+        double sigma = volatility(phi, player.volatility(), v, delta, tau);
+        double phiStar = Math.sqrt(phi * phi + sigma * sigma);
+        double newPhi = 1 / Math.sqrt(1 / (phiStar * phiStar) + 1 / v);
+        double newMu = mu + newPhi * newPhi * g * (score - expected);
+        return new Rating(GLICKO_SCALE * newMu + 1500, GLICKO_SCALE * newPhi, sigma);
+    }
+
+    /** New volatility by the Illinois root-finding iteration from the Glicko-2 paper. */
+    private static double volatility(double phi, double sigma, double v, double delta, double tau) {
+        double a = Math.log(sigma * sigma);
+        double phi2 = phi * phi;
+        double delta2 = delta * delta;
+        DoubleUnaryOperator f = x -> {
+            double ex = Math.exp(x);
+            double d = phi2 + v + ex;
+            return ex * (delta2 - phi2 - v - ex) / (2 * d * d) - (x - a) / (tau * tau);
+        };
+
+        double lo = a;
+        double hi;
+        if (delta2 > phi2 + v) {
+            hi = Math.log(delta2 - phi2 - v);
+        } else {
+            int k = 1;
+            while (f.applyAsDouble(a - k * tau) < 0) k++;
+            hi = a - k * tau;
+        }
+        double fLo = f.applyAsDouble(lo);
+        double fHi = f.applyAsDouble(hi);
+        while (Math.abs(hi - lo) > EPSILON) {
+            double c = lo + (lo - hi) * fLo / (fHi - fLo);
+            double fC = f.applyAsDouble(c);
+            if (fC * fHi <= 0) {
+                lo = hi;
+                fLo = fHi;
+            } else {
+                fLo = fLo / 2;
+            }
+            hi = c;
+            fHi = fC;
+        }
+        return Math.exp(lo / 2);
+    }
+}
@@ -0,0 +1,79 @@
+package com.familyranking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Running 1v1 record of each pair of players per game (head_to_head_stats). A pair is stored once,
+ * lower user id first, and every count and result is seen from that "low" player's side.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HeadToHeadRepository {
+
+    /** Results kept in {@link Record#recent()}; matches the column width. */
+    public static final int RECENT_RESULTS = 10;
+
+    public enum Result {
+        LOW_WON('L', 1), HIGH_WON('H', -1), DRAW('D', 0);
+
+        private final char code;
+        private final int streakStep;
+
+        Result(char code, int streakStep) {
+            this.code = code;
+            this.streakStep = streakStep;
+        }
+
+        public static Result of(char code) {
+            for (Result r : values()) {
+                if (r.code == code) return r;
+            }
+            throw new IllegalArgumentException("Unknown head-to-head result " + code);
+        }
+    }
+
+    /**
+     * @param streak positive when the low player won the last {@code streak} matches, negative for the
+     *               high player, 0 after a draw
+     * @param recent latest results first, one {@link Result} code each
+     */
+    public record Record(int lowWins, int highWins, int draws, int streak, String recent,
+                         Long lastMatchId, LocalDateTime lastPlayedAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Adds one result to a pair, extending or restarting the streak. Results must arrive in match order. */
+    public void record(Long gameId, Long lowId, Long highId, Result result, Long matchId, LocalDateTime playedAt) {
+        jdbcTemplate.update("INSERT INTO head_to_head_stats AS h (game_id, user_low_id, user_high_id, low_wins,"
+                        + " high_wins, draws, streak, recent, last_match_id, last_played_at)"
+                        + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+                        + " ON CONFLICT (game_id, user_low_id, user_high_id) DO UPDATE SET"
+                        + " low_wins = h.low_wins + EXCLUDED.low_wins,"
+                        + " high_wins = h.high_wins + EXCLUDED.high_wins,"
+                        + " draws = h.draws + EXCLUDED.draws,"
+                        + " streak = CASE WHEN EXCLUDED.streak <> 0 AND SIGN(h.streak) = SIGN(EXCLUDED.streak)"
+                        + " THEN h.streak + EXCLUDED.streak ELSE EXCLUDED.streak END,"
+                        + " recent = LEFT(EXCLUDED.recent || h.recent, " + RECENT_RESULTS + "),"
+                        + " last_match_id = EXCLUDED.last_match_id,"
+                        + " last_played_at = EXCLUDED.last_played_at",
+                gameId, lowId, highId,
+                result == Result.LOW_WON ? 1 : 0, result == Result.HIGH_WON ? 1 : 0, result == Result.DRAW ? 1 : 0,
+                result.streakStep, String.valueOf(result.code), matchId,
+                playedAt != null ? Timestamp.valueOf(playedAt) : null);
+    }
+
+    public Optional<Record> find(Long gameId, Long lowId, Long highId) {
+        return jdbcTemplate.query("SELECT low_wins, high_wins, draws, streak, recent, last_match_id, last_played_at"
+                        + " FROM head_to_head_stats WHERE game_id = ? AND user_low_id = ? AND user_high_id = ?",
+                (rs, i) -> new Record(rs.getInt("low_wins"), rs.getInt("high_wins"), rs.getInt("draws"),
+                        rs.getInt("streak"), rs.getString("recent"), rs.getObject("last_match_id", Long.class),
+                        rs.getObject("last_played_at", LocalDateTime.class)),
+                gameId, lowId, highId).stream().findFirst();
+    }
+}
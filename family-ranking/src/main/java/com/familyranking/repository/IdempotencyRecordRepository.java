@@ -0,0 +1,50 @@
+package com.familyranking.repository;
+
+import com.familyranking.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /** Claims a key for a request about to run (status 0); returns 0 when the key is already taken. */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO idempotency_keys (id, fingerprint, status, created_at)
+        VALUES (:id, :fingerprint, 0, :now)
+        ON CONFLICT (id) DO NOTHING
+    """, nativeQuery = true)
+    int claim(@Param("id") String id, @Param("fingerprint") String fingerprint, @Param("now") LocalDateTime now);
+
+    /** Re-claims a key whose claim went stale before its request finished, or whose response expired. */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE IdempotencyRecord r SET r.fingerprint = :fingerprint, r.status = 0, r.contentType = null,
+            r.body = null, r.createdAt = :now
+        WHERE r.id = :id AND ((r.status = 0 AND r.createdAt < :staleBefore) OR r.createdAt < :expiredBefore)
+    """)
+    int takeOver(@Param("id") String id, @Param("fingerprint") String fingerprint, @Param("now") LocalDateTime now,
+                 @Param("staleBefore") LocalDateTime staleBefore, @Param("expiredBefore") LocalDateTime expiredBefore);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.contentType = :contentType, r.body = :body WHERE r.id = :id")
+    int complete(@Param("id") String id, @Param("status") int status,
+                 @Param("contentType") String contentType, @Param("body") byte[] body);
+
+    /** Drops a claim whose request did not finish, so a retry may run. */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.status = 0")
+    int release(@Param("id") String id);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
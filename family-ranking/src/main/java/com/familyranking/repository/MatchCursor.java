@@ -0,0 +1,27 @@
+package com.familyranking.repository;
+
+import com.familyranking.entity.Match;
+import com.familyranking.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/** Opaque keyset cursor over match history order (created at desc, id desc). */
+public record MatchCursor(LocalDateTime createdAt, Long id) {
+
+    public static String encode(Match last) {
+        String raw = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MatchCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) throw new IllegalArgumentException();
+            return new MatchCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid match cursor");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.familyranking.repository;
+
+import com.familyranking.entity.Match.MatchStatus;
+
+import java.util.List;
+
+/** Filtered, keyset-paginated match history of a user; implemented in {@link MatchHistoryRepositoryImpl}. */
+public interface MatchHistoryRepository {
+
+    enum Settlement { NONE, REQUESTED, CONFIRMED }
+
+    /** Optional filters; null fields match everything. */
+    record MatchFilter(Long gameId, MatchStatus status, Settlement settlement) {}
+
+    /**
+     * Ids of matches the user played in (including as a team member) or created, newest first, strictly after {@code after}
+     * when given, at most {@code limit} when given.
+     */
+    List<Long> findHistoryIds(Long userId, MatchFilter filter, MatchCursor after, Integer limit);
+}
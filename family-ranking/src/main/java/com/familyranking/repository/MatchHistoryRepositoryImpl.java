@@ -0,0 +1,52 @@
+package com.familyranking.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class MatchHistoryRepositoryImpl implements MatchHistoryRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * A range scan of the user's match_participants rows in (created_at, match_id) order, on the index
+     * that also leads with the game or status when that filter is set. A page therefore costs the same
+     * no matter how deep into the history it is. Settlement lives only on matches and is checked per row
+     * (joined by primary key), so a settlement-filtered page may walk past the user's other matches.
+     * Filters are added only when set, so the plan stays specific.
+     */
+    @Override
+    public List<Long> findHistoryIds(Long userId, MatchFilter filter, MatchCursor after, Integer limit) {
+        StringBuilder sql = new StringBuilder("SELECT p.match_id FROM match_participants p");
+        if (filter.settlement() != null) sql.append(" JOIN matches m ON m.id = p.match_id");
+        sql.append(" WHERE p.user_id = :userId");
+        if (filter.gameId() != null) sql.append(" AND p.game_id = :gameId");
+        if (filter.status() != null) sql.append(" AND p.status = :status");
+        if (filter.settlement() != null) {
+            sql.append(switch (filter.settlement()) {
+                case NONE -> " AND m.bet_settled_requested = false";
+                case REQUESTED -> " AND m.bet_settled_requested = true AND m.bet_settled_confirmed = false";
+                case CONFIRMED -> " AND m.bet_settled_confirmed = true";
+            });
+        }
+        if (after != null) sql.append(" AND (p.created_at, p.match_id) < (:afterCreatedAt, :afterId)");
+        sql.append(" ORDER BY p.created_at DESC, p.match_id DESC");
+        if (limit != null) sql.append(" LIMIT :limit");
+
+        Query query = entityManager.createNativeQuery(sql.toString()).setParameter("userId", userId);
+        if (filter.gameId() != null) query.setParameter("gameId", filter.gameId());
+        if (filter.status() != null) query.setParameter("status", filter.status().name());
+        if (after != null) {
+            query.setParameter("afterCreatedAt", after.createdAt());
+            query.setParameter("afterId", after.id());
+        }
+        if (limit != null) query.setParameter("limit", limit);
+
+        @SuppressWarnings("unchecked")
+        List<Number> ids = query.getResultList();
+        return ids.stream().map(Number::longValue).toList();
+    }
+}
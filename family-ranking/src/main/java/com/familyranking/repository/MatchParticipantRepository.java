@@ -0,0 +1,64 @@
+package com.familyranking.repository;
+
+import com.familyranking.entity.Match.MatchStatus;
+import com.familyranking.entity.MatchParticipant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface MatchParticipantRepository extends JpaRepository<MatchParticipant, MatchParticipant.Key> {
+
+    /**
+     * Participant rows derived from matches and team_members. A user reached twice (say the creator,
+     * who is also player 1) keeps the playing side.
+     */
+    String DERIVED_ROWS = """
+        SELECT DISTINCT ON (r.match_id, r.user_id) r.match_id, r.user_id, r.side, r.created_at, r.game_id, r.status
+        FROM (
+            SELECT m.id AS match_id, m.player1_id AS user_id, 1 AS side, m.created_at, m.game_id, m.status
+            FROM matches m WHERE NOT m.is_team_match
+            UNION ALL
+            SELECT m.id, m.player2_id, 2, m.created_at, m.game_id, m.status FROM matches m WHERE NOT m.is_team_match
+            UNION ALL
+            SELECT m.id, tm.user_id, 1, m.created_at, m.game_id, m.status
+            FROM matches m JOIN team_members tm ON tm.team_id = m.team1_id WHERE m.is_team_match
+            UNION ALL
+            SELECT m.id, tm.user_id, 2, m.created_at, m.game_id, m.status
+            FROM matches m JOIN team_members tm ON tm.team_id = m.team2_id WHERE m.is_team_match
+            UNION ALL
+            SELECT m.id, m.created_by, 0, m.created_at, m.game_id, m.status FROM matches m
+        ) r
+        WHERE r.user_id IS NOT NULL
+        """;
+
+    String INSERT_INTO = "INSERT INTO match_participants (match_id, user_id, side, created_at, game_id, status) ";
+
+    /** Adds the participants of the given (flushed) matches. */
+    @Modifying
+    @Query(value = INSERT_INTO + DERIVED_ROWS
+            + " AND r.match_id IN (:matchIds) ORDER BY r.match_id, r.user_id, r.side DESC"
+            + " ON CONFLICT (match_id, user_id) DO NOTHING", nativeQuery = true)
+    int addForMatches(@Param("matchIds") Collection<Long> matchIds);
+
+    @Modifying
+    @Query(value = INSERT_INTO + DERIVED_ROWS
+            + " ORDER BY r.match_id, r.user_id, r.side DESC"
+            + " ON CONFLICT (match_id, user_id) DO NOTHING", nativeQuery = true)
+    int addForAllMatches();
+
+    /** Keeps the participants' copy of the status in step after a transition of the match. */
+    @Modifying
+    @Query("UPDATE MatchParticipant p SET p.status = :status WHERE p.matchId = :matchId")
+    void updateStatus(@Param("matchId") Long matchId, @Param("status") MatchStatus status);
+
+    @Modifying
+    @Query("DELETE FROM MatchParticipant")
+    void deleteAllInBulk();
+
+    @Query("SELECT p.side FROM MatchParticipant p WHERE p.matchId = :matchId AND p.userId = :userId")
+    Optional<Integer> findSide(@Param("matchId") Long matchId, @Param("userId") Long userId);
+}
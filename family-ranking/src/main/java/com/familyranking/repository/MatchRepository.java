@@ -1,15 +1,22 @@
 package com.familyranking.repository;
 
 import com.familyranking.entity.Match;
-import com.familyranking.entity.User;
+import com.familyranking.rating.MatchResult;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface MatchRepository extends JpaRepository<Match, Long> {
+public interface MatchRepository extends JpaRepository<Match, Long>, MatchHistoryRepository {
 
     void deleteByGame_Id(Long gameId);
 
@@ -17,19 +24,73 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     @Query("DELETE FROM Match m WHERE m.player1.id = :userId OR m.player2.id = :userId OR m.createdBy.id = :userId")
     void deleteByUserId(@Param("userId") Long userId);
 
+    // Matches come with everything MatchDto needs in one query; team members are batch-fetched (see Team)
+    @EntityGraph(attributePaths = {"game", "player1", "player2", "team1", "team2"})
+    @Query("SELECT m FROM Match m WHERE m.id IN :ids")
+    List<Match> findAllWithDetailsById(@Param("ids") Collection<Long> ids);
+
+    // Compare-and-set transitions: each returns 0 when the match was no longer in the expected state.
+
+    @Modifying
     @Query("""
-        SELECT m FROM Match m
-        WHERE m.player1 = :user OR m.player2 = :user
-           OR m.createdBy = :user
-        ORDER BY m.createdAt DESC
+        UPDATE Match m SET m.status = com.familyranking.entity.Match$MatchStatus.COMPLETED,
+            m.resultConfirmedByOpponent = true, m.completedAt = :completedAt
+        WHERE m.id = :id AND m.status = com.familyranking.entity.Match$MatchStatus.PENDING
+    """)
+    int completeIfPending(@Param("id") Long id, @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Query("""
+        UPDATE Match m SET m.status = com.familyranking.entity.Match$MatchStatus.REJECTED
+        WHERE m.id = :id AND m.status = com.familyranking.entity.Match$MatchStatus.PENDING
+    """)
+    int rejectIfPending(@Param("id") Long id);
+
+    @Modifying
+    @Query("""
+        UPDATE Match m SET m.betSettledRequested = true, m.betSettledRequestedAt = :requestedAt
+        WHERE m.id = :id AND m.status = com.familyranking.entity.Match$MatchStatus.COMPLETED
+    """)
+    int requestSettlementIfCompleted(@Param("id") Long id, @Param("requestedAt") LocalDateTime requestedAt);
+
+    @Modifying
+    @Query("""
+        UPDATE Match m SET m.betSettledConfirmed = true
+        WHERE m.id = :id AND m.status = com.familyranking.entity.Match$MatchStatus.COMPLETED
+          AND m.betSettledRequested = true
+    """)
+    int confirmSettlementIfRequested(@Param("id") Long id);
+
+    /**
+     * Completed matches of the given games that the stats outbox has already applied, in the order they
+     * were completed. One statement, so the matches and the pending events come from the same snapshot.
+     */
+    @Query("""
+        SELECT new com.familyranking.rating.MatchResult(
+            m.id, m.game.id, m.teamMatch, m.player1.id, m.player2.id, m.team1.id, m.team2.id,
+            m.winnerId, m.score1, m.score2)
+        FROM Match m
+        WHERE m.game.id IN :gameIds AND m.status = com.familyranking.entity.Match$MatchStatus.COMPLETED
+          AND NOT EXISTS (SELECT 1 FROM OutboxEvent e WHERE e.aggregateId = m.id
+                          AND e.type = com.familyranking.entity.OutboxEvent$Type.MATCH_COMPLETED)
+        ORDER BY COALESCE(m.completedAt, m.createdAt), m.id
     """)
-    List<Match> findByUser(@Param("user") User user);
+    List<MatchResult> findAppliedResults(@Param("gameIds") Collection<Long> gameIds);
 
+    /**
+     * Streams the completed matches the stats outbox has already applied, in id order, through a server-side
+     * cursor; like {@link #findAppliedResults}, one statement. Callers must consume inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
     @Query("""
         SELECT m FROM Match m
-        WHERE m.game.id = :gameId
-          AND (m.player1 = :user OR m.player2 = :user OR m.createdBy = :user)
-        ORDER BY m.createdAt DESC
+        JOIN FETCH m.game
+        LEFT JOIN FETCH m.player1
+        LEFT JOIN FETCH m.player2
+        WHERE m.status = com.familyranking.entity.Match$MatchStatus.COMPLETED
+          AND NOT EXISTS (SELECT 1 FROM OutboxEvent e WHERE e.aggregateId = m.id
+                          AND e.type = com.familyranking.entity.OutboxEvent$Type.MATCH_COMPLETED)
+        ORDER BY m.id
     """)
-    List<Match> findByUserAndGame(@Param("user") User user, @Param("gameId") Long gameId);
+    Stream<Match> streamApplied();
 }
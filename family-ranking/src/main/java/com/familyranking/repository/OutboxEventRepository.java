@@ -0,0 +1,33 @@
+package com.familyranking.repository;
+
+import com.familyranking.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /** Locks the oldest pending events of one partition lane; rows locked by another instance are skipped. */
+    @Query(value = """
+        SELECT * FROM outbox_events
+        WHERE MOD(partition_key, :lanes) = :lane AND attempts < :maxAttempts
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<OutboxEvent> claim(@Param("lane") int lane, @Param("lanes") int lanes,
+                            @Param("maxAttempts") int maxAttempts, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id = :id")
+    void recordFailure(@Param("id") Long id, @Param("error") String error);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.attempts < :maxAttempts")
+    LocalDateTime findOldestPending(@Param("maxAttempts") int maxAttempts);
+}
@@ -0,0 +1,97 @@
+package com.familyranking.repository;
+
+import com.familyranking.entity.PlayerDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.List;
+
+public interface PlayerDailyStatsRepository extends JpaRepository<PlayerDailyStats, Long> {
+
+    /** Bucket size of a points series; names match PostgreSQL's date_trunc units. */
+    enum Resolution {
+        DAY, WEEK, MONTH;
+
+        /** First day of the bucket containing {@code day}; weeks start on Monday like date_trunc. */
+        public LocalDate align(LocalDate day) {
+            return switch (this) {
+                case DAY -> day;
+                case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> day.withDayOfMonth(1);
+            };
+        }
+    }
+
+    /** One bucket of a series; a range without matches yields a single row with only the starting points. */
+    interface PointsBucketRow {
+        Integer getStartingPoints();
+        LocalDate getStart();
+        Integer getPoints();
+        Integer getWins();
+        Integer getLosses();
+        Integer getDraws();
+        /** Running points total at the end of the bucket, including everything before the range. */
+        Integer getTotalPoints();
+    }
+
+    void deleteByGame_Id(Long gameId);
+    void deleteByUser_Id(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM PlayerDailyStats s WHERE s.game.id IN :gameIds")
+    void deleteByGameIds(@Param("gameIds") Collection<Long> gameIds);
+
+    /** Ranking of a game over days in [from, to), summed from daily buckets, with the game's tie policy. */
+    @Query(value = """
+        SELECT CASE g.tie_policy
+                 WHEN 'ORDINAL' THEN ROW_NUMBER() OVER (ORDER BY t.points DESC, t.wins DESC, t.user_id)
+                 WHEN 'DENSE'   THEN DENSE_RANK() OVER (ORDER BY t.points DESC, t.wins DESC)
+                 ELSE                RANK()       OVER (ORDER BY t.points DESC, t.wins DESC)
+               END AS "rank",
+               t.user_id AS "userId", u.username AS "username", u.avatar AS "avatar",
+               t.points AS "points", t.wins AS "wins", t.losses AS "losses", t.draws AS "draws"
+        FROM (SELECT d.user_id,
+                     CAST(SUM(d.points) AS integer) AS points, CAST(SUM(d.wins) AS integer) AS wins,
+                     CAST(SUM(d.losses) AS integer) AS losses, CAST(SUM(d.draws) AS integer) AS draws
+              FROM player_daily_stats d
+              WHERE d.game_id = :gameId AND d.day >= :fromDay AND d.day < :toDay
+              GROUP BY d.user_id) t
+        JOIN users u ON u.id = t.user_id
+        JOIN games g ON g.id = :gameId
+        ORDER BY t.points DESC, t.wins DESC, t.user_id
+    """, nativeQuery = true)
+    List<PlayerGameStatsRepository.RankingRow> findRanking(@Param("gameId") Long gameId,
+                                                           @Param("fromDay") LocalDate fromDay,
+                                                           @Param("toDay") LocalDate toDay);
+
+    /**
+     * A player's daily buckets of a game over [from, to) rolled up by {@code unit} (day, week, month).
+     * Only buckets with matches are returned; the starting total rides along on every row. Served by the (user_id, game_id, day) unique index.
+     */
+    @Query(value = """
+        SELECT CAST(s.points_before AS integer) AS "startingPoints", b.start AS "start",
+               CAST(b.points AS integer) AS "points", CAST(b.wins AS integer) AS "wins",
+               CAST(b.losses AS integer) AS "losses", CAST(b.draws AS integer) AS "draws",
+               CAST(s.points_before + SUM(b.points) OVER (ORDER BY b.start) AS integer) AS "totalPoints"
+        FROM (SELECT COALESCE(SUM(p.points), 0) AS points_before
+              FROM player_daily_stats p
+              WHERE p.user_id = :userId AND p.game_id = :gameId AND p.day < :fromDay) s
+        LEFT JOIN (SELECT CAST(date_trunc(:unit, CAST(d.day AS timestamp)) AS date) AS start,
+                     SUM(d.points) AS points, SUM(d.wins) AS wins, SUM(d.losses) AS losses, SUM(d.draws) AS draws
+              FROM player_daily_stats d
+              WHERE d.user_id = :userId AND d.game_id = :gameId AND d.day >= :fromDay AND d.day < :toDay
+              GROUP BY 1) b ON TRUE
+        ORDER BY b.start
+    """, nativeQuery = true)
+    List<PointsBucketRow> findPointsSeries(@Param("userId") Long userId,
+                                           @Param("gameId") Long gameId,
+                                           @Param("unit") String unit,
+                                           @Param("fromDay") LocalDate fromDay,
+                                           @Param("toDay") LocalDate toDay);
+}
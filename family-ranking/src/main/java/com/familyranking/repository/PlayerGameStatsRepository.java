@@ -4,13 +4,50 @@ import com.familyranking.entity.Game;
 import com.familyranking.entity.PlayerGameStats;
 import com.familyranking.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface PlayerGameStatsRepository extends JpaRepository<PlayerGameStats, Long> {
     Optional<PlayerGameStats> findByUserAndGame(User user, Game game);
-    List<PlayerGameStats> findByGameOrderByPointsDesc(Game game);
     void deleteByGame_Id(Long gameId);
     void deleteByUser_Id(Long userId);
+
+    @Query("""
+        SELECT s FROM PlayerGameStats s JOIN FETCH s.user
+        WHERE s.game.id = :gameId AND s.rating IS NOT NULL
+        ORDER BY s.rating DESC
+    """)
+    List<PlayerGameStats> findRatedByGameId(@Param("gameId") Long gameId);
+
+    /** A player's totals in a game, joined with the player's profile. */
+    interface StandingRow {
+        Long getUserId();
+        String getUsername();
+        String getAvatar();
+        Integer getPoints();
+        Integer getWins();
+        Integer getLosses();
+        Integer getDraws();
+    }
+
+    /** One row of a ranking computed in SQL. */
+    interface RankingRow extends StandingRow {
+        Long getRank();
+    }
+
+    /**
+     * All players of a game, unordered. The leaderboard ranks them in memory under the game's tie
+     * policy, so the query skips the sort and window function.
+     */
+    @Query(value = """
+        SELECT s.user_id AS "userId", u.username AS "username", u.avatar AS "avatar",
+               s.points AS "points", s.wins AS "wins", s.losses AS "losses", s.draws AS "draws"
+        FROM player_game_stats s
+        JOIN users u ON u.id = s.user_id
+        WHERE s.game_id = :gameId
+    """, nativeQuery = true)
+    List<StandingRow> findStandings(@Param("gameId") Long gameId);
 }
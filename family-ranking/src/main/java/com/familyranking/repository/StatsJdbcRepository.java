@@ -0,0 +1,142 @@
+package com.familyranking.repository;
+
+import com.familyranking.rating.Rating;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Set-based writes of match results. Each method is one statement for all players of a match and
+ * increments in the database ({@code col = col + ?}), so concurrent accepts cannot lose updates.
+ * Bypasses the persistence context: managed entities loaded earlier keep their old totals.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatsJdbcRepository {
+
+    /** Increments one player earns from a match. */
+    public record StatsDelta(Long userId, int points, int wins, int losses, int draws) {
+        public StatsDelta plus(StatsDelta other) {
+            return new StatsDelta(userId, points + other.points, wins + other.wins,
+                    losses + other.losses, draws + other.draws);
+        }
+    }
+
+    /** Per-game totals of a player after the increment, including the current rating. */
+    public record StatsTotals(Long userId, int points, int wins, int losses, int draws,
+                              Double rating, Double ratingDeviation, Double ratingVolatility) {}
+
+    // Advisory lock class guarding a game's ratings: shared while the outbox applies matches, exclusive while replaying
+    private static final int RATING_LOCK = 0x52617465;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Upserts player_game_stats and returns the committed-to-be totals. Deltas must have distinct users. */
+    public List<StatsTotals> incrementGameStats(Long gameId, Collection<StatsDelta> deltas) {
+        if (deltas.isEmpty()) return List.of();
+        String sql = "INSERT INTO player_game_stats (user_id, game_id, points, wins, losses, draws) VALUES "
+                + rows(deltas.size(), 6)
+                + " ON CONFLICT (user_id, game_id) DO UPDATE SET"
+                + " points = player_game_stats.points + EXCLUDED.points,"
+                + " wins = player_game_stats.wins + EXCLUDED.wins,"
+                + " losses = player_game_stats.losses + EXCLUDED.losses,"
+                + " draws = player_game_stats.draws + EXCLUDED.draws"
+                + " RETURNING user_id, points, wins, losses, draws, rating, rating_deviation, rating_volatility";
+        List<Object> args = new ArrayList<>(deltas.size() * 6);
+        for (StatsDelta d : deltas) {
+            Collections.addAll(args, d.userId(), gameId, d.points(), d.wins(), d.losses(), d.draws());
+        }
+        return jdbcTemplate.query(sql, (rs, i) -> new StatsTotals(rs.getLong("user_id"),
+                rs.getInt("points"), rs.getInt("wins"), rs.getInt("losses"), rs.getInt("draws"),
+                rs.getObject("rating", Double.class), rs.getObject("rating_deviation", Double.class),
+                rs.getObject("rating_volatility", Double.class)), args.toArray());
+    }
+
+    /** Upserts the players' player_daily_stats buckets for {@code day}. Deltas must have distinct users. */
+    public void incrementDailyStats(Long gameId, LocalDate day, Collection<StatsDelta> deltas) {
+        if (deltas.isEmpty()) return;
+        String sql = "INSERT INTO player_daily_stats (user_id, game_id, day, points, wins, losses, draws) VALUES "
+                + rows(deltas.size(), 7)
+                + " ON CONFLICT (user_id, game_id, day) DO UPDATE SET"
+                + " points = player_daily_stats.points + EXCLUDED.points,"
+                + " wins = player_daily_stats.wins + EXCLUDED.wins,"
+                + " losses = player_daily_stats.losses + EXCLUDED.losses,"
+                + " draws = player_daily_stats.draws + EXCLUDED.draws";
+        List<Object> args = new ArrayList<>(deltas.size() * 7);
+        for (StatsDelta d : deltas) {
+            Collections.addAll(args, d.userId(), gameId, Date.valueOf(day), d.points(), d.wins(), d.losses(), d.draws());
+        }
+        jdbcTemplate.update(sql, args.toArray());
+    }
+
+    /** Until commit, keeps a rating replay of the games from running; lanes do not block each other. */
+    public void lockRatingsShared(Collection<Long> gameIds) {
+        lockRatings("pg_advisory_xact_lock_shared", gameIds);
+    }
+
+    /** Until commit, waits out and keeps out every outbox batch touching the games. */
+    public void lockRatingsExclusive(Collection<Long> gameIds) {
+        lockRatings("pg_advisory_xact_lock", gameIds);
+    }
+
+    private void lockRatings(String function, Collection<Long> gameIds) {
+        // Sorted, so shared and exclusive holders queue in the same order
+        for (Long gameId : new TreeSet<>(gameIds)) {
+            jdbcTemplate.queryForList("SELECT " + function + "(?, ?)", RATING_LOCK, Math.toIntExact(gameId));
+        }
+    }
+
+    /**
+     * Locks the users playing in the given matches, in id order. Lanes apply different games but share
+     * players; without this, two batches updating user totals in match order can deadlock.
+     */
+    public void lockPlayers(Collection<Long> matchIds) {
+        if (matchIds.isEmpty()) return;
+        String sql = "SELECT u.id FROM users u WHERE u.id IN (SELECT p.user_id FROM match_participants p"
+                + " WHERE p.match_id IN (" + String.join(", ", Collections.nCopies(matchIds.size(), "?")) + ")"
+                + " AND p.side > 0) ORDER BY u.id FOR UPDATE OF u";
+        jdbcTemplate.queryForList(sql, Long.class, matchIds.toArray());
+    }
+
+    /** Adds the deltas to the users' global totals. */
+    public void incrementUserTotals(Collection<StatsDelta> deltas) {
+        if (deltas.isEmpty()) return;
+        String sql = "UPDATE users u SET total_points = u.total_points + v.points, wins = u.wins + v.wins,"
+                + " losses = u.losses + v.losses, draws = u.draws + v.draws"
+                + " FROM (VALUES " + rows(deltas.size(), 5) + ") AS v(id, points, wins, losses, draws)"
+                + " WHERE u.id = v.id";
+        List<Object> args = new ArrayList<>(deltas.size() * 5);
+        for (StatsDelta d : deltas) {
+            Collections.addAll(args, d.userId(), d.points(), d.wins(), d.losses(), d.draws());
+        }
+        jdbcTemplate.update(sql, args.toArray());
+    }
+
+    /** Sets the ratings of players of a game in one batch. */
+    public void updateRatings(Long gameId, Map<Long, Rating> ratings) {
+        List<Object[]> rows = new ArrayList<>(ratings.size());
+        ratings.forEach((userId, r) -> rows.add(new Object[]{r.rating(), r.deviation(), r.volatility(), gameId, userId}));
+        jdbcTemplate.batchUpdate("UPDATE player_game_stats SET rating = ?, rating_deviation = ?, "
+                + "rating_volatility = ? WHERE game_id = ? AND user_id = ?", rows);
+    }
+
+    /** Clears all ratings of a game. */
+    public void clearRatings(Long gameId) {
+        jdbcTemplate.update("UPDATE player_game_stats SET rating = NULL, rating_deviation = NULL, "
+                + "rating_volatility = NULL WHERE game_id = ?", gameId);
+    }
+
+    private static String rows(int count, int columns) {
+        String row = "(" + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+        return String.join(", ", Collections.nCopies(count, row));
+    }
+}
@@ -2,12 +2,28 @@ package com.familyranking.repository;
 
 import com.familyranking.entity.Team;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.familyranking.entity.User;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TeamRepository extends JpaRepository<Team, Long> {
     List<Team> findByGame_Id(Long gameId);
-    List<Team> findByMembersContaining(User user);
+
+    // Derived "MembersContaining" checks every team in a subquery; joining from the membership uses its user index
+    @Query("SELECT t FROM Team t JOIN t.members u WHERE u = :user")
+    List<Team> findByMembersContaining(@Param("user") User user);
+
+    @Query("SELECT t.id FROM Team t WHERE t.game.id = :gameId ORDER BY t.id")
+    List<Long> findIdsByGameId(@Param("gameId") Long gameId);
+
+    @Query("SELECT DISTINCT t FROM Team t LEFT JOIN FETCH t.members WHERE t.id IN :ids")
+    List<Team> findAllWithMembersById(@Param("ids") Collection<Long> ids);
+
+    /** All (team id, user id) membership pairs. */
+    @Query("SELECT t.id, u.id FROM Team t JOIN t.members u")
+    List<Object[]> findAllMemberIds();
 }
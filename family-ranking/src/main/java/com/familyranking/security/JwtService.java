@@ -9,27 +9,37 @@ import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Issues and verifies the HS256 tokens. The key and parser are built once; a bounded cache remembers
+ * tokens whose signature was already checked, keyed by a SHA-256 of the token, until they expire.
+ */
 @Service
 public class JwtService {
 
-    @Value("${app.jwt.secret}")
-    private String secretKey;
+    private record Verified(Claims claims, long expiresAt) {}
 
-    @Value("${app.jwt.expiration}")
-    private long jwtExpiration;
+    private final Key signInKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+    private final int cacheSize;
+    private final ConcurrentMap<String, Verified> verified = new ConcurrentHashMap<>();
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public JwtService(@Value("${app.jwt.secret}") String secretKey,
+                      @Value("${app.jwt.expiration}") long jwtExpiration,
+                      @Value("${app.jwt.cache-size:10000}") int cacheSize) {
+        this.signInKey = Keys.hmacShaKeyFor(decodeSecret(secretKey));
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+        this.jwtExpiration = jwtExpiration;
+        this.cacheSize = cacheSize;
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -42,34 +52,55 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
+    /** Claims of a correctly signed, unexpired token; null when the token is malformed, forged or expired. */
+    public Claims verify(String token) {
+        long now = System.currentTimeMillis();
+        String key = hash(token);
+        Verified hit = verified.get(key);
+        if (hit != null) {
+            if (hit.expiresAt() > now) return hit.claims();
+            verified.remove(key, hit);
+        }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            remember(key, new Verified(claims, expiration.getTime()), now);
+        }
+        return claims;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        Date expiration = claims.getExpiration();
+        return userDetails.getUsername().equals(claims.getSubject())
+                && (expiration == null || expiration.after(new Date()));
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private void remember(String key, Verified entry, long now) {
+        if (verified.size() >= cacheSize) {
+            verified.values().removeIf(v -> v.expiresAt() <= now);
+            // Still full of live tokens: verify this one again next time rather than grow
+            if (verified.size() >= cacheSize) return;
+        }
+        verified.put(key, entry);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = decodeSecret(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     /**
@@ -0,0 +1,87 @@
+package com.familyranking.security;
+
+import com.familyranking.entity.User;
+import com.familyranking.repository.UserRepository;
+import com.familyranking.util.Transactions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Users behind authenticated requests, by username, so a request does not start with a SELECT on users.
+ * Entries live for a short TTL and are evicted when a user's row changes. Callers always get their own
+ * copy; it may hold stale stats, so write paths re-load the managed user rather than save the principal.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Entry(User user, long loadedAt) {}
+
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped on every eviction; a load that raced with one does not cache what it read
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrincipalCache(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.principal-cache.ttl-seconds:30}") long ttlSeconds,
+                          @Value("${app.principal-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter("auth.principal.cache", "result", "hit");
+        this.misses = meterRegistry.counter("auth.principal.cache", "result", "miss");
+    }
+
+    /** A copy of the user named {@code username}, or null when there is none. */
+    public User load(String username) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(username);
+        if (entry != null && now - entry.loadedAt() < ttlMillis) {
+            hits.increment();
+            return copy(entry.user());
+        }
+        misses.increment();
+        long seen = generation.get();
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            entries.remove(username);
+            return null;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> now - e.loadedAt() >= ttlMillis);
+        }
+        if (entries.size() < maxEntries && generation.get() == seen) {
+            entries.put(username, new Entry(copy(user), now));
+        }
+        return user;
+    }
+
+    /** Forgets the given usernames once the current transaction commits. */
+    public void evict(String... usernames) {
+        evict(List.of(usernames));
+    }
+
+    public void evict(Collection<String> usernames) {
+        Transactions.afterCommit(() -> {
+            generation.incrementAndGet();
+            usernames.forEach(entries::remove);
+        });
+    }
+
+    private static User copy(User user) {
+        return user.toBuilder().build();
+    }
+}
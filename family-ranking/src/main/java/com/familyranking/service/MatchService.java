@@ -1,17 +1,31 @@
 package com.familyranking.service;
 
+import com.familyranking.dto.request.BatchMatchItem;
 import com.familyranking.dto.request.MatchRequest;
 import com.familyranking.dto.response.Response;
 import com.familyranking.entity.User;
+import com.familyranking.leaderboard.RankingWindow;
+import com.familyranking.repository.MatchHistoryRepository.MatchFilter;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MatchService {
     Response.MatchDto createMatch(User creator, MatchRequest request);
-    Response.MatchDto acceptMatch(User user, Long matchId);
+    List<Response.BatchMatchResult> createMatches(User creator, List<BatchMatchItem> items, boolean autoAccept);
+    void acceptMatch(User user, Long matchId);
+    Response.MatchDto getMatch(Long matchId);
     Response.MatchDto rejectMatch(User user, Long matchId);
     Response.MatchDto requestSettlement(User user, Long matchId);
     Response.MatchDto confirmSettlement(User user, Long matchId);
-    List<Response.MatchDto> getMyMatches(User user);
+    void streamMyMatches(User user, MatchFilter filter, Consumer<Response.MatchDto> sink);
+    Response.MatchPage getMyMatchesPage(User user, MatchFilter filter, String cursor, int limit);
+    Response.CompactMatches getMyMatchesCompact(User user, MatchFilter filter);
+    Response.CompactMatches getMyMatchesPageCompact(User user, MatchFilter filter, String cursor, int limit);
     List<Response.RankingEntry> getRanking(Long gameId);
+    List<Response.RankingEntry> getRanking(Long gameId, RankingWindow window);
+    List<Response.RatingEntry> getRatings(Long gameId);
+    Response.RankingPage getRankingPage(Long gameId, String cursor, int limit);
+    List<Response.RankingEntry> getRankingAroundMe(User user, Long gameId, int radius);
+    Response.RankingEntry getMyRank(User user, Long gameId);
 }
@@ -0,0 +1,11 @@
+package com.familyranking.service;
+
+import com.familyranking.dto.response.Response;
+import com.familyranking.repository.PlayerDailyStatsRepository.Resolution;
+
+import java.time.LocalDate;
+
+public interface StatsService {
+    Response.HeadToHead getHeadToHead(Long userA, Long userB, Long gameId);
+    Response.PointsSeries getPointsSeries(Long userId, Long gameId, Resolution resolution, LocalDate from, LocalDate to);
+}
@@ -3,9 +3,9 @@ package com.familyranking.service;
 import com.familyranking.dto.request.TeamRequest;
 import com.familyranking.dto.response.Response;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface TeamService {
     Response.TeamDto createTeam(TeamRequest request);
-    List<Response.TeamDto> getTeamsByGame(Long gameId);
+    void streamTeamsByGame(Long gameId, Consumer<Response.TeamDto> sink);
 }
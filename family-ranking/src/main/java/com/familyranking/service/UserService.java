@@ -6,13 +6,13 @@ import com.familyranking.dto.request.ProfileUpdateRequest;
 import com.familyranking.dto.response.Response;
 import com.familyranking.entity.User;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     Response.UserProfile getProfile(User user);
     Response.UserProfile updateProfile(User user, ProfileUpdateRequest request);
     Response.UserProfile mapToProfile(User user);
-    List<Response.UserProfile> getAllUsers();
+    void streamAllUsers(Consumer<Response.UserProfile> sink);
 
     Response.UserProfile createUserByAdmin(AdminCreateUserRequest request);
     Response.UserProfile updateUserByAdmin(Long userId, AdminUpdateUserRequest request);
@@ -1,20 +1,26 @@
 package com.familyranking.service.impl;
 
+import com.familyranking.cache.ResourceVersions;
 import com.familyranking.dto.request.GameRequest;
 import com.familyranking.dto.response.Response;
 import com.familyranking.entity.Game;
 import com.familyranking.exception.BadRequestException;
 import com.familyranking.exception.ResourceNotFoundException;
+import com.familyranking.job.RatingReplayJob;
+import com.familyranking.leaderboard.LeaderboardEngine;
 import com.familyranking.repository.GameRepository;
 import com.familyranking.repository.MatchRepository;
+import com.familyranking.repository.PlayerDailyStatsRepository;
 import com.familyranking.repository.PlayerGameStatsRepository;
 import com.familyranking.repository.TeamRepository;
 import com.familyranking.service.GameService;
+import com.familyranking.util.Transactions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +30,10 @@ public class GameServiceImpl implements GameService {
     private final MatchRepository matchRepository;
     private final TeamRepository teamRepository;
     private final PlayerGameStatsRepository statsRepository;
+    private final PlayerDailyStatsRepository dailyStatsRepository;
+    private final LeaderboardEngine leaderboard;
+    private final ResourceVersions versions;
+    private final RatingReplayJob ratingReplayJob;
 
     @Override
     public List<Response.GameDto> getAllGames() {
@@ -42,8 +52,14 @@ public class GameServiceImpl implements GameService {
                 .drawPoint(request.getDrawPoint())
                 .lossPoint(request.getLossPoint())
                 .teamGame(request.isTeamGame())
+                .tiePolicy(request.getTiePolicy())
+                .ratingModel(request.getRatingModel())
+                .ratingK(request.getRatingK())
+                .ratingTau(request.getRatingTau())
                 .build();
-        return mapToDto(gameRepository.save(game));
+        Game saved = gameRepository.save(game);
+        versions.bumpCatalog();
+        return mapToDto(saved);
     }
 
     @Override
@@ -59,7 +75,21 @@ public class GameServiceImpl implements GameService {
         game.setDrawPoint(request.getDrawPoint());
         game.setLossPoint(request.getLossPoint());
         game.setTeamGame(request.isTeamGame());
-        return mapToDto(gameRepository.save(game));
+        game.setTiePolicy(request.getTiePolicy());
+        boolean ratingChanged = game.getRatingModel() != request.getRatingModel()
+                || !Objects.equals(game.getRatingK(), request.getRatingK())
+                || !Objects.equals(game.getRatingTau(), request.getRatingTau());
+        game.setRatingModel(request.getRatingModel());
+        game.setRatingK(request.getRatingK());
+        game.setRatingTau(request.getRatingTau());
+        Game saved = gameRepository.save(game);
+        if (ratingChanged) {
+            Transactions.afterCommit(() -> ratingReplayJob.replay(List.of(id)));
+        }
+        leaderboard.evictGame(id);
+        versions.bumpLeaderboard(id);
+        versions.bumpCatalog();
+        return mapToDto(saved);
     }
 
     @Override
@@ -72,7 +102,11 @@ public class GameServiceImpl implements GameService {
         matchRepository.deleteByGame_Id(id);
         teamRepository.deleteAll(teamRepository.findByGame_Id(id));
         statsRepository.deleteByGame_Id(id);
+        dailyStatsRepository.deleteByGame_Id(id);
         gameRepository.deleteById(id);
+        leaderboard.evictGame(id);
+        versions.bumpLeaderboard(id);
+        versions.bumpCatalog();
     }
 
     public Response.GameDto mapToDto(Game game) {
@@ -84,6 +118,10 @@ public class GameServiceImpl implements GameService {
                 .drawPoint(game.getDrawPoint())
                 .lossPoint(game.getLossPoint())
                 .teamGame(game.isTeamGame())
+                .tiePolicy(game.getTiePolicy())
+                .ratingModel(game.getRatingModel())
+                .ratingK(game.getRatingK())
+                .ratingTau(game.getRatingTau())
                 .build();
     }
 }
@@ -0,0 +1,85 @@
+package com.familyranking.service.impl;
+
+import com.familyranking.entity.Game;
+import com.familyranking.entity.Match;
+import com.familyranking.entity.Team;
+import com.familyranking.entity.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a completed match into per-player point and W/L/D increments using the game's point values.
+ * Shared by the live accept path and the jobs that rebuild derived stats from match history.
+ */
+public final class MatchScoring {
+
+    public record Share(User user, int points, int wins, int losses, int draws) {}
+
+    private MatchScoring() {}
+
+    public static List<Share> score(Match match) {
+        Game game = match.getGame();
+        List<Share> shares = new ArrayList<>();
+
+        if (match.isTeamMatch()) {
+            // Team mode: apply to all members
+            Team team1 = match.getTeam1();
+            boolean team1Wins = (match.getWinnerId() != null && match.getWinnerId().equals(team1.getId()));
+            for (User member : team1.getMembers()) {
+                shares.add(new Share(member, team1Wins ? game.getWinPoint() : game.getLossPoint(),
+                        team1Wins ? 1 : 0, team1Wins ? 0 : 1, 0));
+            }
+            for (User member : match.getTeam2().getMembers()) {
+                shares.add(new Share(member, team1Wins ? game.getLossPoint() : game.getWinPoint(),
+                        team1Wins ? 0 : 1, team1Wins ? 1 : 0, 0));
+            }
+            return shares;
+        }
+
+        User p1 = match.getPlayer1();
+        User p2 = match.getPlayer2();
+        Long winnerId = winnerId(match);
+
+        if (winnerId == null) {
+            // Draw
+            shares.add(new Share(p1, game.getDrawPoint(), 0, 0, 1));
+            shares.add(new Share(p2, game.getDrawPoint(), 0, 0, 1));
+        } else if (winnerId.equals(p1.getId())) {
+            shares.add(new Share(p1, game.getWinPoint(), 1, 0, 0));
+            shares.add(new Share(p2, game.getLossPoint(), 0, 1, 0));
+        } else {
+            shares.add(new Share(p2, game.getWinPoint(), 1, 0, 0));
+            shares.add(new Share(p1, game.getLossPoint(), 0, 1, 0));
+        }
+        return shares;
+    }
+
+    /** Result of side 1 (player 1 or team 1): 1 win, 0.5 draw, 0 loss. */
+    public static double side1Score(Match match) {
+        Long side1Id = match.isTeamMatch() ? match.getTeam1().getId() : match.getPlayer1().getId();
+        return side1Score(match.isTeamMatch(), side1Id, match.getWinnerId(), match.getScore1(), match.getScore2());
+    }
+
+    /** Same as {@link #side1Score(Match)} from raw columns, for jobs that replay history without entities. */
+    public static double side1Score(boolean teamMatch, Long side1Id, Long winnerId, Integer score1, Integer score2) {
+        if (teamMatch) {
+            // Same convention as score(): team matches have no draws
+            return winnerId != null && winnerId.equals(side1Id) ? 1 : 0;
+        }
+        if (winnerId != null) return winnerId.equals(side1Id) ? 1 : 0;
+        if (score1 != null && score2 != null && !score1.equals(score2)) return score1 > score2 ? 1 : 0;
+        return 0.5;
+    }
+
+    /** Winner of a match: the explicit winner id, else decided by score; null means a draw. */
+    public static Long winnerId(Match match) {
+        if (match.getWinnerId() != null) return match.getWinnerId();
+        if (match.getScore1() != null && match.getScore2() != null) {
+            if (match.getScore1() > match.getScore2()) return match.getPlayer1().getId();
+            if (match.getScore2() > match.getScore1()) return match.getPlayer2().getId();
+            return null; // draw
+        }
+        return null;
+    }
+}
@@ -1,39 +1,144 @@
 package com.familyranking.service.impl;
 
+import com.familyranking.dto.request.BatchMatchItem;
 import com.familyranking.dto.request.MatchRequest;
 import com.familyranking.dto.response.Response;
 import com.familyranking.entity.*;
 import com.familyranking.entity.Match.MatchStatus;
 import com.familyranking.exception.BadRequestException;
+import com.familyranking.exception.ConflictException;
 import com.familyranking.exception.ForbiddenException;
 import com.familyranking.exception.ResourceNotFoundException;
+import com.familyranking.leaderboard.LeaderboardEngine;
+import com.familyranking.leaderboard.LeaderboardSlice;
+import com.familyranking.leaderboard.RankingCursor;
+import com.familyranking.leaderboard.RankingWindow;
+import com.familyranking.leaderboard.Standing;
+import com.familyranking.outbox.StatsOutbox;
+import com.familyranking.rating.RatingCalculator;
 import com.familyranking.repository.*;
+import com.familyranking.repository.MatchHistoryRepository.MatchFilter;
 import com.familyranking.service.MatchService;
 import com.familyranking.service.UserService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class MatchServiceImpl implements MatchService {
 
+    private static final int MAX_RANKING_PAGE = 100;
+    private static final int MAX_MATCH_PAGE = 100;
+
     private final MatchRepository matchRepository;
     private final GameRepository gameRepository;
     private final UserRepository userRepository;
     private final TeamRepository teamRepository;
     private final PlayerGameStatsRepository statsRepository;
+    private final PlayerDailyStatsRepository dailyStatsRepository;
+    private final StatsOutbox statsOutbox;
+    private final MatchParticipantRepository participantRepository;
     private final UserService userService;
     private final TeamServiceImpl teamService;
     private final GameServiceImpl gameService;
+    private final LeaderboardEngine leaderboard;
+    private final EntityManager entityManager;
+
+    @Value("${app.leaderboard.season-months:3}")
+    private int seasonMonths;
 
     @Override
     public Response.MatchDto createMatch(User creator, MatchRequest request) {
+        Match match = buildMatch(creator, request);
+        // Flushed so the participant rows can be derived from it in SQL
+        matchRepository.saveAndFlush(match);
+        participantRepository.addForMatches(List.of(match.getId()));
+        return mapToDto(match);
+    }
+
+    @Override
+    public List<Response.BatchMatchResult> createMatches(User creator, List<BatchMatchItem> items, boolean autoAccept) {
+        // Resolve every reference up front with one IN query per table
+        Set<Long> gameIds = new HashSet<>();
+        Set<Long> teamIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (BatchMatchItem item : items) {
+            gameIds.add(item.getGameId());
+            if (item.isTeamMatch()) {
+                addIfPresent(teamIds, item.getTeam1Id());
+                addIfPresent(teamIds, item.getTeam2Id());
+            } else {
+                addIfPresent(userIds, item.getPlayer1Id());
+                addIfPresent(userIds, item.getPlayer2Id());
+            }
+        }
+        Map<Long, Game> games = byId(gameRepository.findAllById(gameIds), Game::getId);
+        Map<Long, Team> teams = byId(teamRepository.findAllWithMembersById(teamIds), Team::getId);
+        Map<Long, User> users = byId(userRepository.findAllById(userIds), User::getId);
+
+        Response.BatchMatchResult[] results = new Response.BatchMatchResult[items.size()];
+        List<Match> matches = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                Match match = buildImportedMatch(creator, items.get(i), games, teams, users);
+                if (autoAccept) {
+                    // Completed before it is saved, so its participant rows start out COMPLETED too
+                    match.setStatus(MatchStatus.COMPLETED);
+                    match.setResultConfirmedByOpponent(true);
+                    match.setCompletedAt(now);
+                }
+                matches.add(match);
+                indexes.add(i);
+            } catch (BadRequestException | ResourceNotFoundException e) {
+                results[i] = Response.BatchMatchResult.builder().index(i).success(false).error(e.getMessage()).build();
+            }
+        }
+
+        // Sequence ids let these go out as JDBC batches
+        List<Match> saved = matchRepository.saveAllAndFlush(matches);
+        if (!saved.isEmpty()) {
+            participantRepository.addForMatches(saved.stream().map(Match::getId).toList());
+        }
+        for (int j = 0; j < saved.size(); j++) {
+            Match match = saved.get(j);
+            if (autoAccept) {
+                statsOutbox.matchCompleted(match, false);
+            }
+            int i = indexes.get(j);
+            results[i] = Response.BatchMatchResult.builder().index(i).success(true).match(mapToDto(match)).build();
+        }
+        return List.of(results);
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) ids.add(id);
+    }
+
+    private Match buildMatch(User creator, MatchRequest request) {
         Game game = gameRepository.findById(request.getGameId())
                 .orElseThrow(() -> new ResourceNotFoundException("Game not found"));
 
@@ -61,25 +166,67 @@ public class MatchServiceImpl implements MatchService {
             }
             builder.player1(creator).player2(opponent);
         }
+        return builder.build();
+    }
+
+    /** An imported match names both sides itself; the creator is only recorded as such. */
+    private static Match buildImportedMatch(User creator, BatchMatchItem item, Map<Long, Game> games,
+                                            Map<Long, Team> teams, Map<Long, User> users) {
+        Game game = lookup(games, item.getGameId(), "Game not found");
+
+        Match.MatchBuilder builder = Match.builder()
+                .game(game)
+                .teamMatch(item.isTeamMatch())
+                .betType(item.getBetType())
+                .betDescription(item.getBetDescription())
+                .score1(item.getScore1())
+                .score2(item.getScore2())
+                .winnerId(item.getWinnerId())
+                .createdBy(creator);
+
+        if (item.isTeamMatch()) {
+            Team team1 = lookup(teams, item.getTeam1Id(), "Team 1 not found");
+            Team team2 = lookup(teams, item.getTeam2Id(), "Team 2 not found");
+            if (team1.getId().equals(team2.getId())) {
+                throw new BadRequestException("A team cannot play against itself");
+            }
+            builder.team1(team1).team2(team2);
+        } else {
+            User player1 = lookup(users, item.getPlayer1Id(), "Player 1 not found");
+            User player2 = lookup(users, item.getPlayer2Id(), "Player 2 not found");
+            if (player1.getId().equals(player2.getId())) {
+                throw new BadRequestException("A player cannot play against themselves");
+            }
+            builder.player1(player1).player2(player2);
+        }
+        return builder.build();
+    }
 
-        return mapToDto(matchRepository.save(builder.build()));
+    private static <T> T lookup(Map<Long, T> byId, Long id, String notFound) {
+        T found = id == null ? null : byId.get(id);
+        if (found == null) throw new ResourceNotFoundException(notFound);
+        return found;
     }
 
     @Override
-    public Response.MatchDto acceptMatch(User user, Long matchId) {
+    public void acceptMatch(User user, Long matchId) {
         Match match = getMatchOrThrow(matchId);
 
         assertOpponent(user, match);
         assertStatus(match, MatchStatus.PENDING);
 
-        match.setStatus(MatchStatus.ACCEPTED);
-        match.setResultConfirmedByOpponent(true);
-
-        // Apply points
-        applyPoints(match);
-        match.setStatus(MatchStatus.COMPLETED);
+        // Only the request that moves the match out of PENDING records it; stats are applied by the outbox
+        transition(match, matchRepository.completeIfPending(matchId, LocalDateTime.now()));
+        participantRepository.updateStatus(matchId, MatchStatus.COMPLETED);
+        statsOutbox.matchCompleted(match, true);
+    }
 
-        return mapToDto(matchRepository.save(match));
+    @Override
+    @Transactional(readOnly = true)
+    public Response.MatchDto getMatch(Long matchId) {
+        // Stats land through JDBC, so players already in the (open-in-view) context would be stale
+        entityManager.clear();
+        return mapToDto(getMatchOrThrow(matchId));
     }
 
     @Override
@@ -88,8 +235,9 @@ public class MatchServiceImpl implements MatchService {
         assertOpponent(user, match);
         assertStatus(match, MatchStatus.PENDING);
 
-        match.setStatus(MatchStatus.REJECTED);
-        return mapToDto(matchRepository.save(match));
+        transition(match, matchRepository.rejectIfPending(matchId));
+        participantRepository.updateStatus(matchId, MatchStatus.REJECTED);
+        return mapToDto(match);
     }
 
     @Override
@@ -104,9 +252,8 @@ public class MatchServiceImpl implements MatchService {
         if (!isParticipant(user, match)) {
             throw new ForbiddenException("You are not a participant in this match");
         }
-        match.setBetSettledRequested(true);
-        match.setBetSettledRequestedAt(LocalDateTime.now());
-        return mapToDto(matchRepository.save(match));
+        transition(match, matchRepository.requestSettlementIfCompleted(matchId, LocalDateTime.now()));
+        return mapToDto(match);
     }
 
     @Override
@@ -121,106 +268,135 @@ public class MatchServiceImpl implements MatchService {
         if (!isWinner(user, match)) {
             throw new ForbiddenException("Only the winner can confirm settlement");
         }
-        match.setBetSettledConfirmed(true);
-        return mapToDto(matchRepository.save(match));
+        transition(match, matchRepository.confirmSettlementIfRequested(matchId));
+        return mapToDto(match);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Response.MatchDto> getMyMatches(User user) {
-        return matchRepository.findByUser(user).stream().map(this::mapToDto).toList();
+    public void streamMyMatches(User user, MatchFilter filter, Consumer<Response.MatchDto> sink) {
+        // Ids are cheap to hold; the matches themselves are loaded, written and dropped per chunk
+        List<Long> ids = matchRepository.findHistoryIds(user.getId(), filter, null, null);
+        for (int from = 0; from < ids.size(); from += MAX_MATCH_PAGE) {
+            loadInOrder(ids.subList(from, Math.min(from + MAX_MATCH_PAGE, ids.size())))
+                    .forEach(match -> sink.accept(mapToDto(match)));
+            entityManager.clear();
+        }
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<Response.RankingEntry> getRanking(Long gameId) {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new ResourceNotFoundException("Game not found"));
+    public Response.MatchPage getMyMatchesPage(User user, MatchFilter filter, String cursor, int limit) {
+        HistoryPage page = historyPage(user, filter, cursor, limit);
+        return Response.MatchPage.builder()
+                .matches(page.matches().stream().map(this::mapToDto).toList())
+                .nextCursor(page.nextCursor())
+                .build();
+    }
 
-        List<PlayerGameStats> stats = statsRepository.findByGameOrderByPointsDesc(game);
-
-        int[] rank = {1};
-        List<Response.RankingEntry> result = new ArrayList<>();
-        for (PlayerGameStats s : stats) {
-            result.add(Response.RankingEntry.builder()
-                    .rank(rank[0]++)
-                    .userId(s.getUser().getId())
-                    .username(s.getUser().getUsername())
-                    .avatar(s.getUser().getAvatar())
-                    .points(s.getPoints())
-                    .wins(s.getWins())
-                    .losses(s.getLosses())
-                    .draws(s.getDraws())
-                    .build());
-        }
-        return result;
+    @Override
+    @Transactional(readOnly = true)
+    public Response.CompactMatches getMyMatchesCompact(User user, MatchFilter filter) {
+        return mapToCompact(loadInOrder(matchRepository.findHistoryIds(user.getId(), filter, null, null)), null);
     }
 
-    // ===== Private helpers =====
+    @Override
+    @Transactional(readOnly = true)
+    public Response.CompactMatches getMyMatchesPageCompact(User user, MatchFilter filter, String cursor, int limit) {
+        HistoryPage page = historyPage(user, filter, cursor, limit);
+        return mapToCompact(page.matches(), page.nextCursor());
+    }
 
-    private void applyPoints(Match match) {
-        Game game = match.getGame();
+    private record HistoryPage(List<Match> matches, String nextCursor) {}
 
-        if (match.isTeamMatch()) {
-            // Team mode: apply to all members
-            applyTeamPoints(match.getTeam1(), match.getTeam2(), match.getWinnerId(), game);
-        } else {
-            User p1 = match.getPlayer1();
-            User p2 = match.getPlayer2();
-            Long winnerId = determineWinnerId(match);
-
-            if (winnerId == null) {
-                // Draw
-                addStats(p1, game, game.getDrawPoint(), 0, 0, 1);
-                addStats(p2, game, game.getDrawPoint(), 0, 0, 1);
-            } else if (winnerId.equals(p1.getId())) {
-                addStats(p1, game, game.getWinPoint(), 1, 0, 0);
-                addStats(p2, game, game.getLossPoint(), 0, 1, 0);
-            } else {
-                addStats(p2, game, game.getWinPoint(), 1, 0, 0);
-                addStats(p1, game, game.getLossPoint(), 0, 1, 0);
-            }
-        }
+    private HistoryPage historyPage(User user, MatchFilter filter, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_MATCH_PAGE));
+        MatchCursor after = cursor == null || cursor.isBlank() ? null : MatchCursor.decode(cursor);
+        // One extra row tells whether another page follows
+        List<Match> matches = loadInOrder(matchRepository.findHistoryIds(user.getId(), filter, after, size + 1));
+        boolean hasMore = matches.size() > size;
+        List<Match> page = hasMore ? matches.subList(0, size) : matches;
+        return new HistoryPage(page, hasMore ? MatchCursor.encode(page.get(size - 1)) : null);
     }
 
-    private Long determineWinnerId(Match match) {
-        if (match.getWinnerId() != null) return match.getWinnerId();
-        if (match.getScore1() != null && match.getScore2() != null) {
-            if (match.getScore1() > match.getScore2()) return match.getPlayer1().getId();
-            if (match.getScore2() > match.getScore1()) return match.getPlayer2().getId();
-            return null; // draw
-        }
-        return null;
+    private List<Match> loadInOrder(List<Long> ids) {
+        Map<Long, Match> byId = byId(matchRepository.findAllWithDetailsById(ids), Match::getId);
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
     }
 
-    private void applyTeamPoints(Team winner, Team loser, Long winnerId, Game game) {
-        boolean team1Wins = (winnerId != null && winnerId.equals(winner.getId()));
-        for (User member : winner.getMembers()) {
-            addStats(member, game, team1Wins ? game.getWinPoint() : game.getLossPoint(),
-                    team1Wins ? 1 : 0, team1Wins ? 0 : 1, 0);
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Response.RankingEntry> getRanking(Long gameId) {
+        return mapToRankingEntries(leaderboard.slice(gameId, 0, Integer.MAX_VALUE));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Response.RankingEntry> getRanking(Long gameId, RankingWindow window) {
+        if (window == RankingWindow.ALL) {
+            return getRanking(gameId);
+        }
+        if (!gameRepository.existsById(gameId)) {
+            throw new ResourceNotFoundException("Game not found");
         }
-        for (User member : loser.getMembers()) {
-            addStats(member, game, team1Wins ? game.getLossPoint() : game.getWinPoint(),
-                    team1Wins ? 0 : 1, team1Wins ? 1 : 0, 0);
+        LocalDate today = LocalDate.now();
+        return dailyStatsRepository.findRanking(gameId, window.start(today, seasonMonths), today.plusDays(1))
+                .stream().map(this::mapToRankingEntry).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Response.RatingEntry> getRatings(Long gameId) {
+        Game game = gameRepository.findById(gameId)
+                .orElseThrow(() -> new ResourceNotFoundException("Game not found"));
+        if (!RatingCalculator.isRated(game)) {
+            throw new BadRequestException("Game '" + game.getName() + "' has no rating model");
         }
+        boolean glicko = game.getRatingModel() == Game.RatingModel.GLICKO2;
+        return statsRepository.findRatedByGameId(gameId).stream()
+                .map(s -> Response.RatingEntry.builder()
+                        .userId(s.getUser().getId())
+                        .username(s.getUser().getUsername())
+                        .avatar(s.getUser().getAvatar())
+                        .rating(s.getRating())
+                        .deviation(glicko ? s.getRatingDeviation() : null)
+                        .build())
+                .toList();
     }
 
-    private void addStats(User user, Game game, int pts, int wins, int losses, int draws) {
-        PlayerGameStats stats = statsRepository.findByUserAndGame(user, game)
-                .orElse(PlayerGameStats.builder().user(user).game(game).build());
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Response.RankingPage getRankingPage(Long gameId, String cursor, int limit) {
+        int size = Math.min(Math.max(limit, 1), MAX_RANKING_PAGE);
+        LeaderboardSlice slice = cursor == null || cursor.isBlank()
+                ? leaderboard.slice(gameId, 0, size)
+                : leaderboard.sliceAfter(gameId, RankingCursor.decode(cursor), size);
+        List<Standing> standings = slice.standings();
+        return Response.RankingPage.builder()
+                .entries(mapToRankingEntries(slice))
+                .nextCursor(slice.hasMore() ? RankingCursor.encode(standings.get(standings.size() - 1)) : null)
+                .total(slice.total())
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Response.RankingEntry> getRankingAroundMe(User user, Long gameId, int radius) {
+        return mapToRankingEntries(aroundUser(user, gameId, Math.min(Math.max(radius, 0), MAX_RANKING_PAGE)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Response.RankingEntry getMyRank(User user, Long gameId) {
+        LeaderboardSlice slice = aroundUser(user, gameId, 0);
+        return mapToRankingEntry(slice.standings().get(0), slice.ranks()[0]);
+    }
 
-        stats.setPoints(stats.getPoints() + pts);
-        stats.setWins(stats.getWins() + wins);
-        stats.setLosses(stats.getLosses() + losses);
-        stats.setDraws(stats.getDraws() + draws);
-        statsRepository.save(stats);
+    // ===== Private helpers =====
 
-        // Update global stats on user
-        user.setTotalPoints(user.getTotalPoints() + pts);
-        user.setWins(user.getWins() + wins);
-        user.setLosses(user.getLosses() + losses);
-        user.setDraws(user.getDraws() + draws);
-        userRepository.save(user);
+    private LeaderboardSlice aroundUser(User user, Long gameId, int radius) {
+        return leaderboard.sliceAround(gameId, user.getId(), radius)
+                .orElseThrow(() -> new ResourceNotFoundException("You have no ranking in this game yet"));
     }
 
     private void assertOpponent(User user, Match match) {
@@ -238,12 +414,7 @@ public class MatchServiceImpl implements MatchService {
             throw new ForbiddenException("Only the opponent can perform this action");
         }
 
-        boolean inTeam1 = match.getTeam1() != null && match.getTeam1().getMembers() != null
-                && match.getTeam1().getMembers().stream().anyMatch(m -> m.getId().equals(user.getId()));
-        boolean inTeam2 = match.getTeam2() != null && match.getTeam2().getMembers() != null
-                && match.getTeam2().getMembers().stream().anyMatch(m -> m.getId().equals(user.getId()));
-
-        if (!inTeam1 && !inTeam2) {
+        if (teamSide(user, match) == MatchParticipant.CREATOR_ONLY) {
             throw new ForbiddenException("Only the opponent can perform this action");
         }
     }
@@ -259,15 +430,11 @@ public class MatchServiceImpl implements MatchService {
             return (match.getPlayer1() != null && match.getPlayer1().getId().equals(user.getId()))
                     || (match.getPlayer2() != null && match.getPlayer2().getId().equals(user.getId()));
         }
-        boolean inTeam1 = match.getTeam1() != null && match.getTeam1().getMembers() != null
-                && match.getTeam1().getMembers().stream().anyMatch(m -> m.getId().equals(user.getId()));
-        boolean inTeam2 = match.getTeam2() != null && match.getTeam2().getMembers() != null
-                && match.getTeam2().getMembers().stream().anyMatch(m -> m.getId().equals(user.getId()));
-        return inTeam1 || inTeam2;
+        return teamSide(user, match) != MatchParticipant.CREATOR_ONLY;
     }
 
     private boolean isWinner(User user, Match match) {
-        Long winnerId = determineWinnerId(match);
+        Long winnerId = MatchScoring.winnerId(match);
         if (winnerId == null) return false;
 
         if (!match.isTeamMatch()) {
@@ -275,13 +442,25 @@ public class MatchServiceImpl implements MatchService {
         }
 
         // winnerId is a team id for team matches
-        if (match.getTeam1() != null && winnerId.equals(match.getTeam1().getId())) {
-            return match.getTeam1().getMembers().stream().anyMatch(m -> m.getId().equals(user.getId()));
-        }
-        if (match.getTeam2() != null && winnerId.equals(match.getTeam2().getId())) {
-            return match.getTeam2().getMembers().stream().anyMatch(m -> m.getId().equals(user.getId()));
+        int side = teamSide(user, match);
+        return (side == 1 && match.getTeam1() != null && winnerId.equals(match.getTeam1().getId()))
+                || (side == 2 && match.getTeam2() != null && winnerId.equals(match.getTeam2().getId()));
+    }
+
+    /** Team the user plays for in a team match (1 or 2), or 0 if none: one primary-key lookup. */
+    private int teamSide(User user, Match match) {
+        return participantRepository.findSide(match.getId(), user.getId()).orElse(MatchParticipant.CREATOR_ONLY);
+    }
+
+    /**
+     * Finishes a compare-and-set transition: a concurrent request changed the match between our
+     * read and the conditional update when no row matched. Otherwise reloads the new state.
+     */
+    private void transition(Match match, int updated) {
+        if (updated == 0) {
+            throw new ConflictException("Match was changed by another request");
         }
-        return false;
+        entityManager.refresh(match);
     }
 
     private Match getMatchOrThrow(Long matchId) {
@@ -289,6 +468,92 @@ public class MatchServiceImpl implements MatchService {
                 .orElseThrow(() -> new ResourceNotFoundException("Match not found"));
     }
 
+    private List<Response.RankingEntry> mapToRankingEntries(LeaderboardSlice slice) {
+        List<Standing> standings = slice.standings();
+        List<Response.RankingEntry> result = new ArrayList<>(standings.size());
+        for (int i = 0; i < standings.size(); i++) {
+            result.add(mapToRankingEntry(standings.get(i), slice.ranks()[i]));
+        }
+        return result;
+    }
+
+    private Response.RankingEntry mapToRankingEntry(PlayerGameStatsRepository.RankingRow r) {
+        return Response.RankingEntry.builder()
+                .rank(r.getRank().intValue())
+                .userId(r.getUserId())
+                .username(r.getUsername())
+                .avatar(r.getAvatar())
+                .points(r.getPoints())
+                .wins(r.getWins())
+                .losses(r.getLosses())
+                .draws(r.getDraws())
+                .build();
+    }
+
+    private Response.RankingEntry mapToRankingEntry(Standing s, int rank) {
+        return Response.RankingEntry.builder()
+                .rank(rank)
+                .userId(s.userId())
+                .username(s.username())
+                .avatar(s.avatar())
+                .points(s.points())
+                .wins(s.wins())
+                .losses(s.losses())
+                .draws(s.draws())
+                .build();
+    }
+
+    private Response.CompactMatches mapToCompact(List<Match> matches, String nextCursor) {
+        Map<Long, Response.UserRef> users = new LinkedHashMap<>();
+        Map<Long, Response.CompactTeam> teams = new LinkedHashMap<>();
+        Map<Long, Response.GameDto> games = new LinkedHashMap<>();
+        List<Response.CompactMatch> compact = new ArrayList<>(matches.size());
+        for (Match m : matches) {
+            games.computeIfAbsent(m.getGame().getId(), id -> gameService.mapToDto(m.getGame()));
+            addUserRef(users, m.getPlayer1());
+            addUserRef(users, m.getPlayer2());
+            for (Team team : new Team[]{m.getTeam1(), m.getTeam2()}) {
+                if (team == null || teams.containsKey(team.getId())) continue;
+                team.getMembers().forEach(u -> addUserRef(users, u));
+                teams.put(team.getId(), Response.CompactTeam.builder()
+                        .id(team.getId())
+                        .name(team.getName())
+                        .gameId(team.getGame().getId())
+                        .memberIds(team.getMembers().stream().map(User::getId).toList())
+                        .build());
+            }
+            compact.add(Response.CompactMatch.builder()
+                    .id(m.getId())
+                    .gameId(m.getGame().getId())
+                    .teamMatch(m.isTeamMatch())
+                    .player1Id(m.getPlayer1() != null ? m.getPlayer1().getId() : null)
+                    .player2Id(m.getPlayer2() != null ? m.getPlayer2().getId() : null)
+                    .team1Id(m.getTeam1() != null ? m.getTeam1().getId() : null)
+                    .team2Id(m.getTeam2() != null ? m.getTeam2().getId() : null)
+                    .betType(m.getBetType())
+                    .betDescription(m.getBetDescription())
+                    .score1(m.getScore1())
+                    .score2(m.getScore2())
+                    .winnerId(m.getWinnerId())
+                    .status(m.getStatus())
+                    .resultConfirmedByOpponent(m.isResultConfirmedByOpponent())
+                    .betSettledRequested(m.isBetSettledRequested())
+                    .betSettledRequestedAt(m.getBetSettledRequestedAt())
+                    .betSettledConfirmed(m.isBetSettledConfirmed())
+                    .createdAt(m.getCreatedAt())
+                    .build());
+        }
+        return Response.CompactMatches.builder()
+                .matches(compact).users(users).teams(teams).games(games).nextCursor(nextCursor)
+                .build();
+    }
+
+    private static void addUserRef(Map<Long, Response.UserRef> users, User user) {
+        if (user == null) return;
+        users.computeIfAbsent(user.getId(), id -> Response.UserRef.builder()
+                .id(id).username(user.getUsername()).avatar(user.getAvatar()).build());
+    }
+
     public Response.MatchDto mapToDto(Match match) {
         return Response.MatchDto.builder()
                 .id(match.getId())
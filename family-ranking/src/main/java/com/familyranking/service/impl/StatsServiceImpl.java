@@ -0,0 +1,115 @@
+package com.familyranking.service.impl;
+
+import com.familyranking.dto.response.Response;
+import com.familyranking.entity.User;
+import com.familyranking.exception.BadRequestException;
+import com.familyranking.exception.ResourceNotFoundException;
+import com.familyranking.repository.GameRepository;
+import com.familyranking.repository.HeadToHeadRepository;
+import com.familyranking.repository.HeadToHeadRepository.Result;
+import com.familyranking.repository.PlayerDailyStatsRepository;
+import com.familyranking.repository.PlayerDailyStatsRepository.Resolution;
+import com.familyranking.repository.UserRepository;
+import com.familyranking.service.StatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class StatsServiceImpl implements StatsService {
+
+    private final HeadToHeadRepository headToHeadRepository;
+    private final UserRepository userRepository;
+    private final GameRepository gameRepository;
+    private final PlayerDailyStatsRepository dailyStatsRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Response.HeadToHead getHeadToHead(Long userA, Long userB, Long gameId) {
+        if (userA.equals(userB)) {
+            throw new BadRequestException("Pick two different players");
+        }
+        if (!gameRepository.existsById(gameId)) {
+            throw new ResourceNotFoundException("Game not found");
+        }
+        User a = userRepository.findById(userA).orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        User b = userRepository.findById(userB).orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        boolean aIsLow = userA < userB;
+        HeadToHeadRepository.Record r = headToHeadRepository
+                .find(gameId, Math.min(userA, userB), Math.max(userA, userB))
+                .orElse(new HeadToHeadRepository.Record(0, 0, 0, 0, "", null, null));
+
+        List<String> lastResults = new ArrayList<>(r.recent().length());
+        for (char code : r.recent().toCharArray()) {
+            Result result = Result.of(code);
+            lastResults.add(result == Result.DRAW ? "D" : (result == Result.LOW_WON) == aIsLow ? "W" : "L");
+        }
+        Long streakUserId = r.streak() == 0 ? null : (r.streak() > 0) == aIsLow ? userA : userB;
+
+        return Response.HeadToHead.builder()
+                .userA(toRef(a))
+                .userB(toRef(b))
+                .gameId(gameId)
+                .played(r.lowWins() + r.highWins() + r.draws())
+                .wins(aIsLow ? r.lowWins() : r.highWins())
+                .losses(aIsLow ? r.highWins() : r.lowWins())
+                .draws(r.draws())
+                .lastResults(lastResults)
+                .streakUserId(streakUserId)
+                .streak(Math.abs(r.streak()))
+                .lastMatchId(r.lastMatchId())
+                .lastPlayedAt(r.lastPlayedAt())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Response.PointsSeries getPointsSeries(Long userId, Long gameId, Resolution resolution,
+                                                 LocalDate from, LocalDate to) {
+        LocalDate last = to != null ? to : LocalDate.now();
+        // A year of history unless asked otherwise; widened to whole buckets
+        LocalDate first = resolution.align(from != null ? from : last.minusYears(1).plusDays(1));
+        if (first.isAfter(last)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (!gameRepository.existsById(gameId)) {
+            throw new ResourceNotFoundException("Game not found");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+
+        List<PlayerDailyStatsRepository.PointsBucketRow> rows = dailyStatsRepository.findPointsSeries(
+                userId, gameId, resolution.name().toLowerCase(), first, last.plusDays(1));
+        List<Response.PointsBucket> buckets = rows.stream()
+                .filter(r -> r.getStart() != null)
+                .map(r -> Response.PointsBucket.builder()
+                        .start(r.getStart())
+                        .points(r.getPoints())
+                        .wins(r.getWins())
+                        .losses(r.getLosses())
+                        .draws(r.getDraws())
+                        .totalPoints(r.getTotalPoints())
+                        .build())
+                .toList();
+        return Response.PointsSeries.builder()
+                .userId(userId)
+                .gameId(gameId)
+                .resolution(resolution)
+                .from(first)
+                .to(last)
+                .startingPoints(rows.isEmpty() ? 0 : rows.get(0).getStartingPoints())
+                .buckets(buckets)
+                .build();
+    }
+
+    private static Response.UserRef toRef(User user) {
+        return Response.UserRef.builder().id(user.getId()).username(user.getUsername()).avatar(user.getAvatar()).build();
+    }
+}
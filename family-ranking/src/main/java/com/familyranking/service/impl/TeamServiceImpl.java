@@ -11,12 +11,16 @@ import com.familyranking.repository.TeamRepository;
 import com.familyranking.repository.UserRepository;
 import com.familyranking.service.TeamService;
 import com.familyranking.service.UserService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +30,10 @@ public class TeamServiceImpl implements TeamService {
     private final GameRepository gameRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final EntityManager entityManager;
+
+    // Teams loaded, written and dropped per round trip when streaming
+    private static final int STREAM_CHUNK = 100;
 
     @Override
     public Response.TeamDto createTeam(TeamRequest request) {
@@ -50,8 +58,16 @@ public class TeamServiceImpl implements TeamService {
     }
 
     @Override
-    public List<Response.TeamDto> getTeamsByGame(Long gameId) {
-        return teamRepository.findByGame_Id(gameId).stream().map(this::mapToDto).toList();
+    @Transactional(readOnly = true)
+    public void streamTeamsByGame(Long gameId, Consumer<Response.TeamDto> sink) {
+        List<Long> ids = teamRepository.findIdsByGameId(gameId);
+        for (int from = 0; from < ids.size(); from += STREAM_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + STREAM_CHUNK, ids.size()));
+            teamRepository.findAllWithMembersById(chunk).stream()
+                    .sorted(Comparator.comparing(Team::getId))
+                    .forEach(team -> sink.accept(mapToDto(team)));
+            entityManager.clear();
+        }
     }
 
     public Response.TeamDto mapToDto(Team team) {
@@ -1,5 +1,6 @@
 package com.familyranking.service.impl;
 
+import com.familyranking.cache.ResourceVersions;
 import com.familyranking.dto.request.AdminCreateUserRequest;
 import com.familyranking.dto.request.AdminUpdateUserRequest;
 import com.familyranking.dto.request.ProfileUpdateRequest;
@@ -7,18 +8,22 @@ import com.familyranking.dto.response.Response;
 import com.familyranking.entity.User;
 import com.familyranking.exception.BadRequestException;
 import com.familyranking.exception.ResourceNotFoundException;
+import com.familyranking.leaderboard.LeaderboardEngine;
 import com.familyranking.repository.MatchRepository;
+import com.familyranking.repository.PlayerDailyStatsRepository;
 import com.familyranking.repository.PlayerGameStatsRepository;
 import com.familyranking.repository.TeamRepository;
 import com.familyranking.repository.UserRepository;
+import com.familyranking.security.PrincipalCache;
 import com.familyranking.service.UserService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +34,11 @@ public class UserServiceImpl implements UserService {
     private final MatchRepository matchRepository;
     private final TeamRepository teamRepository;
     private final PlayerGameStatsRepository statsRepository;
+    private final PlayerDailyStatsRepository dailyStatsRepository;
+    private final LeaderboardEngine leaderboard;
+    private final ResourceVersions versions;
+    private final PrincipalCache principalCache;
+    private final EntityManager entityManager;
 
     @Override
     public Response.UserProfile getProfile(User user) {
@@ -36,7 +46,12 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public Response.UserProfile updateProfile(User user, ProfileUpdateRequest request) {
+    @Transactional
+    public Response.UserProfile updateProfile(User principal, ProfileUpdateRequest request) {
+        // The principal may be a cached, detached copy with stale stats; only the managed row is written
+        User user = userRepository.findById(principal.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        String previousUsername = user.getUsername();
         if (request.getAvatar() != null) {
             user.setAvatar(request.getAvatar());
         }
@@ -47,7 +62,9 @@ public class UserServiceImpl implements UserService {
             }
             user.setUsername(request.getUsername());
         }
-        userRepository.save(user);
+        principalCache.evict(previousUsername, user.getUsername());
+        leaderboard.updateProfile(user.getId(), user.getUsername(), user.getAvatar());
+        versions.bumpAllLeaderboards();
         return mapToProfile(user);
     }
 
@@ -68,10 +85,15 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<Response.UserProfile> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::mapToProfile)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<Response.UserProfile> sink) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                sink.accept(mapToProfile(user));
+                // Keep the persistence context from growing with the table
+                entityManager.detach(user);
+            });
+        }
     }
 
     @Override
@@ -98,6 +120,7 @@ public class UserServiceImpl implements UserService {
     public Response.UserProfile updateUserByAdmin(Long userId, AdminUpdateUserRequest request) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        String previousUsername = user.getUsername();
         if (request.getUsername() != null && !request.getUsername().isBlank()) {
             if (!request.getUsername().equals(user.getUsername()) && userRepository.existsByUsername(request.getUsername())) {
                 throw new BadRequestException("Username already taken");
@@ -115,6 +138,9 @@ public class UserServiceImpl implements UserService {
             user.setRawPassword(request.getNewPassword());
         }
         user = userRepository.save(user);
+        principalCache.evict(previousUsername, user.getUsername());
+        leaderboard.updateProfile(user.getId(), user.getUsername(), user.getAvatar());
+        versions.bumpAllLeaderboards();
         return mapToProfile(user);
     }
 
@@ -129,6 +155,10 @@ public class UserServiceImpl implements UserService {
             teamRepository.save(team);
         }
         statsRepository.deleteByUser_Id(userId);
+        dailyStatsRepository.deleteByUser_Id(userId);
         userRepository.delete(user);
+        principalCache.evict(user.getUsername());
+        leaderboard.removeUser(userId);
+        versions.bumpAllLeaderboards();
     }
 }
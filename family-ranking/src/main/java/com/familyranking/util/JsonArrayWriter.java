@@ -0,0 +1,57 @@
+package com.familyranking.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes large lists as a JSON array while they are being read, so a request holds one chunk of rows
+ * at a time instead of the whole result. Uses the application's {@link ObjectMapper}, so the items
+ * serialize exactly as they would in a regular response body.
+ */
+@Component
+public class JsonArrayWriter {
+
+    private final ObjectMapper objectMapper;
+    // Flushing after every item would turn each row into its own network write
+    private final ObjectWriter itemWriter;
+
+    public JsonArrayWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.itemWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Streams everything {@code source} hands to its sink as one JSON array. The source runs on the
+     * async thread writing the response, so it must open its own transaction.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<T>> source) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                // A failure halfway must leave the array unterminated rather than look complete
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+                json.writeStartArray();
+                source.accept(item -> write(json, item));
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private void write(JsonGenerator json, Object item) {
+        try {
+            itemWriter.writeValue(json, item);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
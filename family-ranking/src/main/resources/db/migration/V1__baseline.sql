@@ -0,0 +1,73 @@
+-- Schema as created by hibernate ddl-auto=update before migrations were introduced.
+-- Databases that already have it are baselined at this version and skip this script.
+
+CREATE TABLE games (
+    id           BIGSERIAL PRIMARY KEY,
+    name         VARCHAR(255) NOT NULL UNIQUE,
+    description  VARCHAR(255),
+    win_point    INTEGER NOT NULL,
+    draw_point   INTEGER NOT NULL,
+    loss_point   INTEGER NOT NULL,
+    is_team_game BOOLEAN
+);
+
+CREATE TABLE users (
+    id                 BIGSERIAL PRIMARY KEY,
+    username           VARCHAR(255) NOT NULL UNIQUE,
+    email              VARCHAR(255) NOT NULL UNIQUE,
+    password           VARCHAR(255) NOT NULL,
+    raw_password       VARCHAR(255),
+    avatar             VARCHAR(255),
+    total_points       INTEGER NOT NULL,
+    wins               INTEGER NOT NULL,
+    losses             INTEGER NOT NULL,
+    draws              INTEGER NOT NULL,
+    created_at         TIMESTAMP(6),
+    reset_token        VARCHAR(255),
+    reset_token_expiry TIMESTAMP(6)
+);
+
+CREATE TABLE teams (
+    id      BIGSERIAL PRIMARY KEY,
+    name    VARCHAR(255) NOT NULL,
+    game_id BIGINT NOT NULL REFERENCES games
+);
+
+CREATE TABLE team_members (
+    team_id BIGINT NOT NULL REFERENCES teams,
+    user_id BIGINT NOT NULL REFERENCES users,
+    PRIMARY KEY (team_id, user_id)
+);
+
+CREATE TABLE matches (
+    id                           BIGSERIAL PRIMARY KEY,
+    game_id                      BIGINT NOT NULL REFERENCES games,
+    is_team_match                BOOLEAN,
+    player1_id                   BIGINT REFERENCES users,
+    player2_id                   BIGINT REFERENCES users,
+    team1_id                     BIGINT REFERENCES teams,
+    team2_id                     BIGINT REFERENCES teams,
+    bet_type                     VARCHAR(255) CHECK (bet_type IN ('FRIENDLY', 'LY_NUOC', 'OTHER')),
+    bet_description              VARCHAR(255),
+    score1                       INTEGER,
+    score2                       INTEGER,
+    winner_id                    BIGINT,
+    status                       VARCHAR(255) CHECK (status IN ('PENDING', 'ACCEPTED', 'REJECTED', 'COMPLETED')),
+    result_confirmed_by_opponent BOOLEAN NOT NULL,
+    bet_settled_requested        BOOLEAN NOT NULL,
+    bet_settled_requested_at     TIMESTAMP(6),
+    bet_settled_confirmed        BOOLEAN NOT NULL,
+    created_at                   TIMESTAMP(6),
+    created_by                   BIGINT REFERENCES users
+);
+
+CREATE TABLE player_game_stats (
+    id      BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users,
+    game_id BIGINT NOT NULL REFERENCES games,
+    points  INTEGER NOT NULL,
+    wins    INTEGER NOT NULL,
+    losses  INTEGER NOT NULL,
+    draws   INTEGER NOT NULL,
+    UNIQUE (user_id, game_id)
+);
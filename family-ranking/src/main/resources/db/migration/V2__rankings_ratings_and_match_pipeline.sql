@@ -0,0 +1,111 @@
+-- Tables and columns added while the schema was still managed by ddl-auto=update.
+-- Written to be a no-op for anything update already created.
+
+-- update created these flags nullable; the entities map them to primitives
+UPDATE games SET is_team_game = FALSE WHERE is_team_game IS NULL;
+ALTER TABLE games
+    ALTER COLUMN is_team_game SET DEFAULT FALSE,
+    ALTER COLUMN is_team_game SET NOT NULL;
+
+UPDATE matches SET is_team_match = FALSE WHERE is_team_match IS NULL;
+ALTER TABLE matches
+    ALTER COLUMN is_team_match SET DEFAULT FALSE,
+    ALTER COLUMN is_team_match SET NOT NULL;
+
+ALTER TABLE games ADD COLUMN IF NOT EXISTS tie_policy VARCHAR(255)
+    CHECK (tie_policy IN ('ORDINAL', 'STANDARD', 'DENSE'));
+ALTER TABLE games ADD COLUMN IF NOT EXISTS rating_model VARCHAR(255)
+    CHECK (rating_model IN ('NONE', 'ELO', 'GLICKO2'));
+ALTER TABLE games ADD COLUMN IF NOT EXISTS ratingk FLOAT(53);
+ALTER TABLE games ADD COLUMN IF NOT EXISTS rating_tau FLOAT(53);
+
+ALTER TABLE player_game_stats ADD COLUMN IF NOT EXISTS rating FLOAT(53);
+ALTER TABLE player_game_stats ADD COLUMN IF NOT EXISTS rating_deviation FLOAT(53);
+ALTER TABLE player_game_stats ADD COLUMN IF NOT EXISTS rating_volatility FLOAT(53);
+
+ALTER TABLE matches ADD COLUMN IF NOT EXISTS completed_at TIMESTAMP(6);
+
+-- Match ids moved from the identity column to a pooled sequence; start past every existing id
+CREATE SEQUENCE IF NOT EXISTS match_id_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('match_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM matches))
+WHERE (SELECT last_value FROM match_id_seq) < (SELECT COALESCE(MAX(id), 0) + 50 FROM matches);
+
+CREATE TABLE IF NOT EXISTS player_daily_stats (
+    id      BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users,
+    game_id BIGINT NOT NULL REFERENCES games,
+    day     DATE NOT NULL,
+    points  INTEGER NOT NULL,
+    wins    INTEGER NOT NULL,
+    losses  INTEGER NOT NULL,
+    draws   INTEGER NOT NULL,
+    UNIQUE (user_id, game_id, day)
+);
+CREATE INDEX IF NOT EXISTS idx_player_daily_stats_game_day ON player_daily_stats (game_id, day);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id            BIGSERIAL PRIMARY KEY,
+    type          VARCHAR(255) NOT NULL CHECK (type IN ('MATCH_COMPLETED')),
+    aggregate_id  BIGINT NOT NULL,
+    partition_key BIGINT NOT NULL,
+    attempts      INTEGER NOT NULL,
+    last_error    VARCHAR(1000),
+    created_at    TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id           VARCHAR(400) PRIMARY KEY,
+    fingerprint  VARCHAR(64) NOT NULL,
+    status       INTEGER NOT NULL,
+    content_type VARCHAR(255),
+    body         BYTEA,
+    created_at   TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
+
+CREATE TABLE IF NOT EXISTS match_participants (
+    match_id   BIGINT NOT NULL REFERENCES matches ON DELETE CASCADE,
+    user_id    BIGINT NOT NULL REFERENCES users ON DELETE CASCADE,
+    side       INTEGER NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    game_id    BIGINT NOT NULL,
+    status     VARCHAR(255) CHECK (status IN ('PENDING', 'ACCEPTED', 'REJECTED', 'COMPLETED')),
+    PRIMARY KEY (match_id, user_id)
+);
+-- Copies of the match's filter columns, for a table update created before they were added
+ALTER TABLE match_participants ADD COLUMN IF NOT EXISTS game_id BIGINT;
+ALTER TABLE match_participants ADD COLUMN IF NOT EXISTS status VARCHAR(255)
+    CHECK (status IN ('PENDING', 'ACCEPTED', 'REJECTED', 'COMPLETED'));
+UPDATE match_participants p SET game_id = m.game_id, status = m.status
+FROM matches m WHERE m.id = p.match_id AND p.game_id IS NULL;
+ALTER TABLE match_participants ALTER COLUMN game_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_match_participants_user_created
+    ON match_participants (user_id, created_at, match_id);
+CREATE INDEX IF NOT EXISTS idx_match_participants_user_game_created
+    ON match_participants (user_id, game_id, created_at, match_id);
+CREATE INDEX IF NOT EXISTS idx_match_participants_user_status_created
+    ON match_participants (user_id, status, created_at, match_id);
+
+-- Participants of existing matches, so history is complete as soon as the app starts. Same rows as
+-- MatchParticipantRepository.DERIVED_ROWS; created_at was nullable under update, so those sort oldest.
+INSERT INTO match_participants (match_id, user_id, side, created_at, game_id, status)
+SELECT DISTINCT ON (r.match_id, r.user_id) r.match_id, r.user_id, r.side,
+       COALESCE(r.created_at, TIMESTAMP '1970-01-01'), r.game_id, r.status
+FROM (
+    SELECT m.id AS match_id, m.player1_id AS user_id, 1 AS side, m.created_at, m.game_id, m.status
+    FROM matches m WHERE NOT m.is_team_match
+    UNION ALL
+    SELECT m.id, m.player2_id, 2, m.created_at, m.game_id, m.status FROM matches m WHERE NOT m.is_team_match
+    UNION ALL
+    SELECT m.id, tm.user_id, 1, m.created_at, m.game_id, m.status
+    FROM matches m JOIN team_members tm ON tm.team_id = m.team1_id WHERE m.is_team_match
+    UNION ALL
+    SELECT m.id, tm.user_id, 2, m.created_at, m.game_id, m.status
+    FROM matches m JOIN team_members tm ON tm.team_id = m.team2_id WHERE m.is_team_match
+    UNION ALL
+    SELECT m.id, m.created_by, 0, m.created_at, m.game_id, m.status FROM matches m
+) r
+WHERE r.user_id IS NOT NULL
+ORDER BY r.match_id, r.user_id, r.side DESC
+ON CONFLICT (match_id, user_id) DO NOTHING;
@@ -0,0 +1,24 @@
+-- Indexes for lookups that used to scan whole tables.
+
+-- Deleting a user's matches and the FK checks behind it
+CREATE INDEX IF NOT EXISTS idx_matches_player1_created ON matches (player1_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_matches_player2_created ON matches (player2_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_matches_created_by_created ON matches (created_by, created_at);
+
+-- Per-game match lists, deletes and rating replays (completed matches of a game)
+CREATE INDEX IF NOT EXISTS idx_matches_game_status ON matches (game_id, status);
+
+-- Standings and rating board of a game, and per-game stat deletes; the unique key leads with user_id.
+-- Points order is left to the in-memory leaderboard, which loads a game's standings unordered.
+CREATE INDEX IF NOT EXISTS idx_player_game_stats_game_rating
+    ON player_game_stats (game_id, rating DESC);
+
+-- Password reset links
+CREATE INDEX IF NOT EXISTS idx_users_reset_token ON users (reset_token);
+
+-- Teams of a user; the primary key only covers lookups by team
+CREATE INDEX IF NOT EXISTS idx_team_members_user ON team_members (user_id);
+
+-- Left by ddl-auto=update. A lane is MOD(partition_key, workers), which no index on partition_key serves;
+-- the outbox only holds undelivered events, so claiming reads the backlog in id order instead.
+DROP INDEX IF EXISTS idx_outbox_events_partition;
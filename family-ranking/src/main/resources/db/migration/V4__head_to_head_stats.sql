@@ -0,0 +1,55 @@
+-- Running record of every pair of players per game, so a head-to-head lookup reads one row.
+-- Pairs are stored once with the lower user id first; results are from the "low" player's side.
+CREATE TABLE head_to_head_stats (
+    game_id        BIGINT NOT NULL REFERENCES games ON DELETE CASCADE,
+    user_low_id    BIGINT NOT NULL REFERENCES users ON DELETE CASCADE,
+    user_high_id   BIGINT NOT NULL REFERENCES users ON DELETE CASCADE,
+    low_wins       INTEGER NOT NULL,
+    high_wins      INTEGER NOT NULL,
+    draws          INTEGER NOT NULL,
+    -- Positive: the low player won the last n in a row; negative: the high player did; 0 after a draw
+    streak         INTEGER NOT NULL,
+    -- Latest results first, one letter each: L (low won), H (high won), D (draw)
+    recent         VARCHAR(10) NOT NULL,
+    last_match_id  BIGINT,
+    last_played_at TIMESTAMP(6),
+    PRIMARY KEY (game_id, user_low_id, user_high_id),
+    CHECK (user_low_id < user_high_id)
+);
+
+-- Seed from the completed 1v1 history; matches still waiting in the stats outbox are applied by it
+WITH results AS (
+    SELECT m.id, m.game_id,
+           LEAST(m.player1_id, m.player2_id)    AS low_id,
+           GREATEST(m.player1_id, m.player2_id) AS high_id,
+           COALESCE(m.completed_at, m.created_at) AS played_at,
+           w.winner_id
+    FROM matches m
+    CROSS JOIN LATERAL (SELECT COALESCE(m.winner_id, CASE
+                WHEN m.score1 > m.score2 THEN m.player1_id
+                WHEN m.score2 > m.score1 THEN m.player2_id END) AS winner_id) w
+    WHERE m.status = 'COMPLETED' AND NOT COALESCE(m.is_team_match, FALSE)
+      AND m.player1_id IS NOT NULL AND m.player2_id IS NOT NULL AND m.player1_id <> m.player2_id
+      AND NOT EXISTS (SELECT 1 FROM outbox_events o WHERE o.aggregate_id = m.id)
+), pairs AS (
+    SELECT game_id, low_id, high_id,
+           COUNT(*) FILTER (WHERE winner_id = low_id)  AS low_wins,
+           COUNT(*) FILTER (WHERE winner_id = high_id) AS high_wins,
+           COUNT(*) FILTER (WHERE winner_id IS NULL OR winner_id NOT IN (low_id, high_id)) AS draws,
+           string_agg(CASE WHEN winner_id = low_id THEN 'L' WHEN winner_id = high_id THEN 'H' ELSE 'D' END,
+                      '' ORDER BY played_at DESC, id DESC) AS history,
+           (array_agg(id ORDER BY played_at DESC, id DESC))[1] AS last_match_id,
+           MAX(played_at) AS last_played_at
+    FROM results
+    GROUP BY game_id, low_id, high_id
+)
+INSERT INTO head_to_head_stats (game_id, user_low_id, user_high_id, low_wins, high_wins, draws,
+                                streak, recent, last_match_id, last_played_at)
+SELECT game_id, low_id, high_id, low_wins, high_wins, draws,
+       -- Length of the leading run of the latest result
+       CASE LEFT(history, 1)
+           WHEN 'L' THEN LENGTH(history) - LENGTH(LTRIM(history, 'L'))
+           WHEN 'H' THEN -(LENGTH(history) - LENGTH(LTRIM(history, 'H')))
+           ELSE 0 END,
+       LEFT(history, 10), last_match_id, last_played_at
+FROM pairs;
@@ -0,0 +1,46 @@
+package com.familyranking;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Base for tests that need the real schema: the outbox relies on SKIP LOCKED and the stats on
+ * ON CONFLICT upserts. Uses the database at TEST_DB_URL when set (TEST_DB_USERNAME/TEST_DB_PASSWORD,
+ * default postgres), otherwise a throwaway container; skipped when neither is available.
+ */
+@SpringBootTest
+public abstract class PostgresTest {
+
+    private static final String URL = System.getenv("TEST_DB_URL");
+
+    private static PostgreSQLContainer<?> container;
+
+    @BeforeAll
+    static synchronized void requireDatabase() {
+        if (URL != null || container != null) return;
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(),
+                "Set TEST_DB_URL or make Docker available to run database tests");
+        container = new PostgreSQLContainer<>("postgres:16-alpine");
+        container.start();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL != null ? URL : container.getJdbcUrl());
+        registry.add("spring.datasource.username",
+                () -> URL != null ? env("TEST_DB_USERNAME", "postgres") : container.getUsername());
+        registry.add("spring.datasource.password",
+                () -> URL != null ? env("TEST_DB_PASSWORD", "postgres") : container.getPassword());
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,97 @@
+package com.familyranking;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the statements prepared on the calling thread with the parameters bound to them, so a test
+ * can EXPLAIN exactly what a repository method sends. Import it into a test's context.
+ */
+public class SqlRecorder implements BeanPostProcessor {
+
+    /** A prepared statement and its parameter setter calls, in order. */
+    public record Recorded(String sql, List<Binding> bindings) {
+
+        /** Binds the recorded parameters to another statement of the same shape, e.g. its EXPLAIN. */
+        public void bind(PreparedStatement statement) throws SQLException {
+            for (Binding b : bindings) {
+                try {
+                    b.method().invoke(statement, b.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Could not replay " + b.method().getName(), e);
+                }
+            }
+        }
+    }
+
+    public record Binding(Method method, Object[] args) {}
+
+    private static final ThreadLocal<List<Recorded>> RECORDED = new ThreadLocal<>();
+
+    /** Runs {@code work} and returns the statements it prepared. */
+    public static List<Recorded> record(Runnable work) {
+        List<Recorded> recorded = new ArrayList<>();
+        RECORDED.set(recorded);
+        try {
+            work.run();
+        } finally {
+            RECORDED.remove();
+        }
+        return recorded;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) return bean;
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return recording(super.getConnection());
+            }
+        };
+    }
+
+    private static Connection recording(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(SqlRecorder.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    List<Recorded> recorded = RECORDED.get();
+                    if (recorded != null && method.getName().equals("prepareStatement")
+                            && result instanceof PreparedStatement statement) {
+                        Recorded r = new Recorded((String) args[0], new ArrayList<>());
+                        recorded.add(r);
+                        return binding(statement, r);
+                    }
+                    return result;
+                });
+    }
+
+    private static PreparedStatement binding(PreparedStatement statement, Recorded recorded) {
+        return (PreparedStatement) Proxy.newProxyInstance(SqlRecorder.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer) {
+                        recorded.bindings().add(new Binding(method, args.clone()));
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.familyranking;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Counts the JDBC statements prepared on the calling thread, whether JPA or a JdbcTemplate issues
+ * them. Import it into a test's context; background workers are not counted.
+ */
+public class StatementCounter implements BeanPostProcessor {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    /** Runs {@code work} and returns how many statements it prepared. */
+    public static int count(Runnable work) {
+        int[] count = new int[1];
+        COUNT.set(count);
+        try {
+            work.run();
+        } finally {
+            COUNT.remove();
+        }
+        return count[0];
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) return bean;
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return counting(super.getConnection());
+            }
+        };
+    }
+
+    private static Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    int[] count = COUNT.get();
+                    String name = method.getName();
+                    if (count != null && (name.startsWith("prepare") || name.equals("createStatement"))) {
+                        count[0]++;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
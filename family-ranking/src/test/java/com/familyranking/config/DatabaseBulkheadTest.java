@@ -0,0 +1,65 @@
+package com.familyranking.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DatabaseBulkheadTest {
+
+    private final AtomicBoolean poolDown = new AtomicBoolean();
+    private final DataSource pool = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (poolDown.get()) throw new SQLTransientConnectionException("pool exhausted");
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    };
+    private final DataSource bulkhead =
+            (DataSource) new DatabaseBulkhead(2, 50).postProcessAfterInitialization(pool, "dataSource");
+
+    @Test
+    void callersBeyondTheLimitAreShedUntilAConnectionIsClosed() throws Exception {
+        Connection first = bulkhead.getConnection();
+        Connection second = bulkhead.getConnection();
+
+        assertThatThrownBy(bulkhead::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("bulkhead");
+
+        // Closing twice hands back one permit, not two
+        first.close();
+        first.close();
+        Connection third = bulkhead.getConnection();
+        assertThatThrownBy(bulkhead::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        second.close();
+        third.close();
+    }
+
+    @Test
+    void permitIsReturnedWhenThePoolFails() throws Exception {
+        poolDown.set(true);
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(bulkhead::getConnection).hasMessage("pool exhausted");
+        }
+
+        poolDown.set(false);
+        assertThat(bulkhead.getConnection()).isNotNull();
+        assertThat(bulkhead.getConnection()).isNotNull();
+    }
+}
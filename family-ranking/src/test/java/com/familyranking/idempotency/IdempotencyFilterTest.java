@@ -0,0 +1,104 @@
+package com.familyranking.idempotency;
+
+import com.familyranking.exception.ErrorResponseWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final IdempotencyStore store = new IdempotencyStore(null, 24, 100, false, 300);
+    private final IdempotencyFilter filter = new IdempotencyFilter(store, new ErrorResponseWriter(objectMapper));
+
+    @BeforeEach
+    void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+    }
+
+    @AfterEach
+    void clear() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void invalidKeyGets400Directly() throws Exception {
+        MockHttpServletResponse response = post(" ");
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        // Written directly, not through sendError and an ERROR dispatch
+        assertThat(response.getErrorMessage()).isNull();
+        assertThat(objectMapper.readTree(response.getContentAsByteArray()).get("status").asInt()).isEqualTo(400);
+    }
+
+    @Test
+    void duplicateOfUnfinishedRequestGets409Directly() throws Exception {
+        store.begin("alice k1", IdempotencyFilter.fingerprint(new CachedBodyRequest(request("k1"))));
+
+        MockHttpServletResponse response = post("k1");
+
+        assertThat(response.getStatus()).isEqualTo(409);
+        assertThat(response.getErrorMessage()).isNull();
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(body.get("status").asInt()).isEqualTo(409);
+        assertThat(body.get("message").asText()).contains(IdempotencyFilter.HEADER);
+    }
+
+    @Test
+    void fullStoreSheds503() throws Exception {
+        IdempotencyStore full = new IdempotencyStore(null, 24, 1, false, 300);
+        full.begin("someone else", "f");
+        IdempotencyFilter shedding = new IdempotencyFilter(full, new ErrorResponseWriter(objectMapper));
+
+        MockHttpServletRequest request = request("k2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        shedding.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isNotNull();
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void keyReusedWithAnotherBodyGets422() throws Exception {
+        MockHttpServletRequest first = request("k3");
+        first.setContent("{\"score1\":1}".getBytes());
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(first, new MockHttpServletResponse(), chain);
+        // The controller still sees the body the filter fingerprinted
+        assertThat(chain.getRequest().getInputStream().readAllBytes()).isEqualTo("{\"score1\":1}".getBytes());
+
+        MockHttpServletRequest second = request("k3");
+        second.setContent("{\"score1\":2}".getBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(second, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(422);
+    }
+
+    private MockHttpServletResponse post(String key) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(key), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/matches/1/accept");
+        request.setServletPath("/matches/1/accept");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        return request;
+    }
+}
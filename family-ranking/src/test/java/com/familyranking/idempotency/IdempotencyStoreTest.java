@@ -0,0 +1,58 @@
+package com.familyranking.idempotency;
+
+import com.familyranking.idempotency.IdempotencyStore.StoredResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private static final StoredResponse OK = new StoredResponse(200, "application/json", "{}".getBytes());
+
+    private final IdempotencyStore store = new IdempotencyStore(null, 24, 2, false, 300);
+
+    @Test
+    void inFlightKeysAreNeverEvicted() {
+        assertThat(store.begin("a", "f")).isNull();
+        assertThat(store.begin("b", "f")).isNull();
+
+        assertThatThrownBy(() -> store.begin("c", "f")).isInstanceOf(IdempotencyStore.FullException.class);
+
+        // Both originals are still tracked, so duplicates wait on them instead of running again
+        assertThat(store.begin("a", "f")).isNotNull().isNotDone();
+        assertThat(store.begin("b", "f")).isNotNull().isNotDone();
+    }
+
+    @Test
+    void finishedKeysMakeRoomOldestFirst() {
+        store.begin("a", "f");
+        store.begin("b", "f");
+        store.complete("b", OK);
+
+        assertThat(store.begin("c", "f")).isNull();
+
+        CompletableFuture<StoredResponse> a = store.begin("a", "f");
+        assertThat(a).isNotNull().isNotDone();
+        // "b" was the only finished entry, so it made room and is now unknown
+        assertThatThrownBy(() -> store.begin("b", "f")).isInstanceOf(IdempotencyStore.FullException.class);
+    }
+
+    @Test
+    void duplicateGetsTheFirstResponse() {
+        store.begin("a", "f");
+        store.complete("a", OK);
+
+        assertThat(store.begin("a", "f")).isCompletedWithValue(OK);
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsRefused() {
+        store.begin("a", "f");
+        store.complete("a", OK);
+
+        assertThatThrownBy(() -> store.begin("a", "other")).isInstanceOf(IdempotencyStore.MismatchException.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.familyranking.idempotency;
+
+import com.familyranking.PostgresTest;
+import com.familyranking.idempotency.IdempotencyStore.StoredResponse;
+import com.familyranking.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Two instances sharing idempotency_keys: a key claimed by one never runs on the other. */
+class SharedIdempotencyStoreTest extends PostgresTest {
+
+    private static final StoredResponse CREATED = new StoredResponse(201, "application/json", "{\"id\":1}".getBytes());
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Test
+    void keyClaimedByOneInstanceIsNotRunByAnother() {
+        IdempotencyStore one = new IdempotencyStore(repository, 24, 100, true, 300);
+        IdempotencyStore two = new IdempotencyStore(repository, 24, 100, true, 300);
+        String key = "1 " + UUID.randomUUID();
+
+        assertThat(one.begin(key, "f")).isNull();
+        // In flight elsewhere: refused, not run
+        assertThat(two.begin(key, "f")).isCompletedWithValue(null);
+
+        one.complete(key, CREATED);
+        CompletableFuture<StoredResponse> replayed = two.begin(key, "f");
+        assertThat(replayed).isDone();
+        assertThat(replayed.join().status()).isEqualTo(201);
+        assertThat(replayed.join().body()).isEqualTo(CREATED.body());
+        assertThatThrownBy(() -> new IdempotencyStore(repository, 24, 100, true, 300).begin(key, "other"))
+                .isInstanceOf(IdempotencyStore.MismatchException.class);
+    }
+
+    @Test
+    void abandonedKeyRunsAgainElsewhere() {
+        IdempotencyStore one = new IdempotencyStore(repository, 24, 100, true, 300);
+        IdempotencyStore two = new IdempotencyStore(repository, 24, 100, true, 300);
+        String key = "1 " + UUID.randomUUID();
+
+        one.begin(key, "f");
+        one.abandon(key, null);
+
+        assertThat(two.begin(key, "f")).isNull();
+    }
+
+    @Test
+    void staleClaimIsTakenOver() {
+        IdempotencyStore crashed = new IdempotencyStore(repository, 24, 100, true, 0);
+        IdempotencyStore next = new IdempotencyStore(repository, 24, 100, true, 0);
+        String key = "1 " + UUID.randomUUID();
+
+        crashed.begin(key, "f");
+
+        assertThat(next.begin(key, "f")).isNull();
+    }
+}
@@ -0,0 +1,76 @@
+package com.familyranking.job;
+
+import com.familyranking.PostgresTest;
+import com.familyranking.dto.request.MatchRequest;
+import com.familyranking.entity.Game;
+import com.familyranking.entity.Match.BetType;
+import com.familyranking.entity.User;
+import com.familyranking.outbox.StatsOutbox;
+import com.familyranking.repository.GameRepository;
+import com.familyranking.repository.UserRepository;
+import com.familyranking.service.MatchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** A rebuild from match history must reproduce the buckets the outbox wrote match by match. */
+class StatsBackfillJobTest extends PostgresTest {
+
+    @Autowired
+    private StatsBackfillJob job;
+    @Autowired
+    private MatchService matchService;
+    @Autowired
+    private StatsOutbox statsOutbox;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rebuildMatchesTheIncrementalBuckets() throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        Game game = gameRepository.save(Game.builder().name("backfill-" + run).build());
+        User[] players = new User[3];
+        for (int i = 0; i < players.length; i++) {
+            String name = "b" + i + "-" + run;
+            players[i] = userRepository.save(User.builder().username(name).email(name + "@test").password("x").build());
+        }
+        for (int i = 0; i < 6; i++) {
+            User p1 = players[i % 3];
+            User p2 = players[(i + 1) % 3];
+            MatchRequest request = new MatchRequest();
+            request.setGameId(game.getId());
+            request.setOpponentId(p2.getId());
+            request.setBetType(BetType.FRIENDLY);
+            request.setWinnerId(i % 3 == 2 ? null : p1.getId());
+            Long id = matchService.createMatch(p1, request).getId();
+            matchService.acceptMatch(p2, id);
+            statsOutbox.await(id);
+        }
+
+        List<Map<String, Object>> incremental = buckets(game);
+        assertThat(incremental).hasSize(3);
+        jdbcTemplate.update("DELETE FROM player_daily_stats WHERE game_id = ?", game.getId());
+
+        job.rebuildDailyStats();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!buckets(game).equals(incremental)) {
+            assertThat(System.currentTimeMillis()).as("rebuild finished").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private List<Map<String, Object>> buckets(Game game) {
+        return jdbcTemplate.queryForList("SELECT user_id, day, points, wins, losses, draws FROM player_daily_stats"
+                + " WHERE game_id = ? ORDER BY user_id, day", game.getId());
+    }
+}
@@ -0,0 +1,107 @@
+package com.familyranking.outbox;
+
+import com.familyranking.PostgresTest;
+import com.familyranking.StatementCounter;
+import com.familyranking.entity.Game;
+import com.familyranking.entity.Match;
+import com.familyranking.entity.Match.MatchStatus;
+import com.familyranking.entity.Team;
+import com.familyranking.entity.User;
+import com.familyranking.repository.GameRepository;
+import com.familyranking.repository.MatchRepository;
+import com.familyranking.repository.TeamRepository;
+import com.familyranking.repository.UserRepository;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Applying a match is a fixed handful of set-based statements, whatever the number of players. */
+@Import(StatementCounter.class)
+class MatchStatsProjectionStatementCountTest extends PostgresTest {
+
+    @Autowired
+    private MatchStatsProjection projection;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private MatchRepository matchRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+
+    @Test
+    void oneOnOneTakesFiveStatements() {
+        Game chess = game("chess", false);
+        List<User> players = users("solo", 2);
+        Match match = completed(Match.builder().game(chess).player1(players.get(0)).player2(players.get(1))
+                .createdBy(players.get(0)).winnerId(players.get(0).getId()));
+
+        // Game stats, daily stats, user totals, ratings and the head-to-head record
+        assertThat(applied(match)).isEqualTo(5);
+    }
+
+    @Test
+    void fourOnFourTakesFourStatements() {
+        Game doubles = game("doubles", true);
+        List<User> players = users("team", 8);
+        Team team1 = team("t1", doubles, players.subList(0, 4));
+        Team team2 = team("t2", doubles, players.subList(4, 8));
+        Match match = completed(Match.builder().game(doubles).teamMatch(true).team1(team1).team2(team2)
+                .createdBy(players.get(0)).winnerId(team1.getId()));
+
+        // The same statements as 1v1 for eight players; teams keep no head-to-head record
+        assertThat(applied(match)).isEqualTo(4);
+    }
+
+    private int applied(Match detached) {
+        return transactionTemplate.execute(status -> {
+            Match match = matchRepository.findById(detached.getId()).orElseThrow();
+            // Loading the match is the caller's cost; only the projection's writes are counted
+            Hibernate.initialize(match.getGame());
+            Hibernate.initialize(match.getPlayer1());
+            Hibernate.initialize(match.getPlayer2());
+            if (match.isTeamMatch()) {
+                Hibernate.initialize(match.getTeam1().getMembers());
+                Hibernate.initialize(match.getTeam2().getMembers());
+            }
+            return StatementCounter.count(() -> projection.apply(match));
+        });
+    }
+
+    private Game game(String name, boolean teamGame) {
+        return gameRepository.save(Game.builder().name(name + "-" + run).teamGame(teamGame)
+                .ratingModel(Game.RatingModel.ELO).build());
+    }
+
+    private List<User> users(String prefix, int n) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            String name = prefix + i + "-" + run;
+            users.add(userRepository.save(User.builder().username(name).email(name + "@test").password("x").build()));
+        }
+        return users;
+    }
+
+    private Team team(String name, Game game, List<User> members) {
+        return teamRepository.save(Team.builder().name(name + "-" + run).game(game).members(new HashSet<>(members)).build());
+    }
+
+    private Match completed(Match.MatchBuilder builder) {
+        return matchRepository.save(builder.status(MatchStatus.COMPLETED).completedAt(LocalDateTime.now()).build());
+    }
+}
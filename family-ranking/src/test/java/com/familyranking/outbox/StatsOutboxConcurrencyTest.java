@@ -0,0 +1,169 @@
+package com.familyranking.outbox;
+
+import com.familyranking.PostgresTest;
+import com.familyranking.dto.request.MatchRequest;
+import com.familyranking.entity.Game;
+import com.familyranking.entity.Match;
+import com.familyranking.entity.Match.BetType;
+import com.familyranking.entity.User;
+import com.familyranking.repository.GameRepository;
+import com.familyranking.repository.UserRepository;
+import com.familyranking.service.MatchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Accepts matches of overlapping games and players from many threads, twice each, while the
+ * projection fails the first attempt of some events, then checks every match counted exactly once.
+ */
+@TestPropertySource(properties = {
+        "app.outbox.workers=2",
+        "app.outbox.batch-size=5",
+        "app.outbox.poll-interval-ms=100"
+})
+class StatsOutboxConcurrencyTest extends PostgresTest {
+
+    private static final int PLAYERS = 6;
+    private static final int GAMES = 3;
+    private static final int MATCHES = 60;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private MatchService matchService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+    @SpyBean
+    private MatchStatsProjection projection;
+
+    private record Key(long userId, long gameId) {}
+
+    private record Line(int points, int wins, int losses, int draws) {
+        Line plus(Line o) {
+            return new Line(points + o.points, wins + o.wins, losses + o.losses, draws + o.draws);
+        }
+    }
+
+    @Test
+    void everyCompletedMatchIsAppliedExactlyOnce() throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<User> players = new ArrayList<>();
+        for (int i = 0; i < PLAYERS; i++) {
+            players.add(userRepository.save(User.builder().username("p" + i + "-" + run)
+                    .email("p" + i + "-" + run + "@test").password("x").build()));
+        }
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < GAMES; i++) {
+            games.add(gameRepository.save(Game.builder().name("g" + i + "-" + run).build()));
+        }
+
+        // Every fourth event fails once, forcing the batch rollback and the one-by-one retry
+        Set<Long> failedOnce = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            Match match = invocation.getArgument(0);
+            if (match.getId() % 4 == 0 && failedOnce.add(match.getId())) {
+                throw new IllegalStateException("injected failure");
+            }
+            return invocation.callRealMethod();
+        }).when(projection).apply(any());
+
+        List<Long> matchIds = new ArrayList<>();
+        List<User> opponents = new ArrayList<>();
+        Map<Key, Line> expected = new HashMap<>();
+        for (int i = 0; i < MATCHES; i++) {
+            Game game = games.get(i % GAMES);
+            User p1 = players.get(i % PLAYERS);
+            User p2 = players.get((i + 1 + i / PLAYERS % (PLAYERS - 1)) % PLAYERS);
+            boolean draw = i % 3 == 2;
+            MatchRequest request = new MatchRequest();
+            request.setGameId(game.getId());
+            request.setOpponentId(p2.getId());
+            request.setBetType(BetType.FRIENDLY);
+            request.setWinnerId(draw ? null : p1.getId());
+            matchIds.add(matchService.createMatch(p1, request).getId());
+            opponents.add(p2);
+
+            expected.merge(new Key(p1.getId(), game.getId()), draw
+                    ? new Line(game.getDrawPoint(), 0, 0, 1) : new Line(game.getWinPoint(), 1, 0, 0), Line::plus);
+            expected.merge(new Key(p2.getId(), game.getId()), draw
+                    ? new Line(game.getDrawPoint(), 0, 0, 1) : new Line(game.getLossPoint(), 0, 1, 0), Line::plus);
+        }
+
+        // Each match is accepted by two racing requests; only one may complete it
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int attempt = 0; attempt < 2; attempt++) {
+            for (int i = 0; i < MATCHES; i++) {
+                Long matchId = matchIds.get(i);
+                User opponent = opponents.get(i);
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        matchService.acceptMatch(opponent, matchId);
+                        accepted.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Lost the race: the match is no longer pending
+                    }
+                    return null;
+                }));
+            }
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+        assertThat(accepted).hasValue(MATCHES);
+
+        Map<String, Object> ids = Map.of("ids", matchIds);
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (jdbc.queryForObject("SELECT count(*) FROM outbox_events WHERE aggregate_id IN (:ids)", ids, Long.class) > 0) {
+            assertThat(System.currentTimeMillis()).as("outbox drained").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+        assertThat(failedOnce).isNotEmpty();
+
+        Map<Key, Line> actual = new HashMap<>();
+        jdbc.query("SELECT user_id, game_id, points, wins, losses, draws FROM player_game_stats WHERE game_id IN (:games)",
+                Map.of("games", games.stream().map(Game::getId).toList()),
+                rs -> {
+                    actual.put(new Key(rs.getLong("user_id"), rs.getLong("game_id")), new Line(
+                            rs.getInt("points"), rs.getInt("wins"), rs.getInt("losses"), rs.getInt("draws")));
+                });
+        assertThat(actual).isEqualTo(expected);
+
+        int applied = actual.values().stream().mapToInt(l -> l.wins() + l.losses() + l.draws()).sum();
+        assertThat(applied).isEqualTo(2 * MATCHES);
+        for (User player : players) {
+            Line total = expected.entrySet().stream().filter(e -> e.getKey().userId() == player.getId())
+                    .map(Map.Entry::getValue).reduce(new Line(0, 0, 0, 0), Line::plus);
+            User stored = userRepository.findById(player.getId()).orElseThrow();
+            assertThat(new Line(stored.getTotalPoints(), stored.getWins(), stored.getLosses(), stored.getDraws()))
+                    .as("totals of %s", player.getUsername()).isEqualTo(total);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.familyranking.ratelimit;
+
+import com.familyranking.PostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Behind a proxy every request arrives from the proxy's address; anonymous callers must still be
+ * metered per client, as named by X-Forwarded-For. Runs on the real server, where the forwarded
+ * headers are resolved.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class ForwardedClientRateLimitTest extends PostgresTest {
+
+    // Burst of the login rule in application.yml
+    private static final int LOGIN_CAPACITY = 10;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void anonymousCallersAreMeteredPerForwardedClient() throws Exception {
+        for (int i = 0; i < LOGIN_CAPACITY; i++) {
+            assertThat(login("203.0.113.7")).isNotEqualTo(429);
+        }
+        assertThat(login("203.0.113.7")).isEqualTo(429);
+
+        // Same proxy, another client
+        assertThat(login("203.0.113.8")).isNotEqualTo(429);
+    }
+
+    private int login(String forwardedFor) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"nobody\",\"password\":\"wrong\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
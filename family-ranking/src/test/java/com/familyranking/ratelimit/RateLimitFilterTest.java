@@ -0,0 +1,62 @@
+package com.familyranking.ratelimit;
+
+import com.familyranking.exception.ErrorResponseWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new RateLimitProperties(true, 100, List.of(new RateLimitProperties.Rule("POST", "/auth/login", 2, 1))),
+            new SimpleMeterRegistry(), new ErrorResponseWriter(objectMapper));
+
+    @Test
+    void throttledRequestGets429WithRetryAfterAndErrorBody() throws Exception {
+        assertThat(login("10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(login("10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse throttled = login("10.0.0.1");
+        assertThat(throttled.getStatus()).isEqualTo(429);
+        // Written directly, not through sendError and an ERROR dispatch
+        assertThat(throttled.getErrorMessage()).isNull();
+        assertThat(Integer.parseInt(throttled.getHeader("Retry-After"))).isPositive();
+        JsonNode body = objectMapper.readTree(throttled.getContentAsByteArray());
+        assertThat(body.get("status").asInt()).isEqualTo(429);
+        assertThat(body.get("message").asText()).isNotBlank();
+        assertThat(body.hasNonNull("timestamp")).isTrue();
+    }
+
+    @Test
+    void clientsAndUnmatchedRoutesHaveTheirOwnBudget() throws Exception {
+        login("10.0.0.1");
+        login("10.0.0.1");
+        assertThat(login("10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(login("10.0.0.2").getStatus()).isEqualTo(200);
+
+        MockHttpServletRequest other = new MockHttpServletRequest("POST", "/api/auth/register");
+        other.setServletPath("/auth/register");
+        other.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(other, response, new MockFilterChain());
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse login(String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setServletPath("/auth/login");
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,189 @@
+package com.familyranking.repository;
+
+import com.familyranking.PostgresTest;
+import com.familyranking.SqlRecorder;
+import com.familyranking.entity.Match.MatchStatus;
+import com.familyranking.entity.User;
+import com.familyranking.repository.MatchHistoryRepository.MatchFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans of the hot repository queries on a dataset large enough for the planner to pick the index on
+ * its own. The statements and parameters are the ones the repository methods send; the dataset is
+ * rolled back afterwards.
+ */
+@Import(SqlRecorder.class)
+class HotQueryPlanTest extends PostgresTest {
+
+    private static final int USERS = 5000;
+    private static final int GAMES = 200;
+    private static final int MATCHES = 100_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MatchRepository matchRepository;
+    @Autowired
+    private PlayerGameStatsRepository gameStatsRepository;
+    @Autowired
+    private PlayerDailyStatsRepository dailyStatsRepository;
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Test
+    void hotQueriesPickTheirIndexes() {
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            long base = generate();
+            long user = base + 1;
+            long game = base + 7;
+            User player = userRepository.getReferenceById(base + 42);
+
+            String history = plan("match_participants",
+                    () -> matchRepository.findHistoryIds(user, new MatchFilter(null, null, null), null, 21));
+            assertThat(history).contains("idx_match_participants_user_created").doesNotContain("Sort");
+            String nextPage = plan("match_participants", () -> matchRepository.findHistoryIds(user,
+                    new MatchFilter(null, null, null), new MatchCursor(LocalDateTime.of(2025, 2, 1, 0, 0), 1L), 21));
+            assertThat(nextPage).contains("idx_match_participants_user_created").doesNotContain("Sort");
+            String byGame = plan("match_participants",
+                    () -> matchRepository.findHistoryIds(user, new MatchFilter(game, null, null), null, 21));
+            assertThat(byGame).contains("idx_match_participants_user_game_created").doesNotContain("Sort");
+            String byStatus = plan("match_participants", () -> matchRepository.findHistoryIds(user,
+                    new MatchFilter(null, MatchStatus.PENDING, null), null, 21));
+            assertThat(byStatus).contains("idx_match_participants_user_status_created").doesNotContain("Sort");
+
+            assertThat(plan("player_game_stats", () -> gameStatsRepository.findStandings(game)))
+                    .contains("idx_player_game_stats_game_rating");
+            assertThat(plan("player_game_stats", () -> gameStatsRepository.findRatedByGameId(game)))
+                    .contains("idx_player_game_stats_game_rating");
+
+            LocalDate from = LocalDate.of(2025, 1, 10);
+            assertThat(plan("player_daily_stats", () -> dailyStatsRepository.findRanking(game, from, from.plusDays(7))))
+                    .contains("idx_player_daily_stats_game_day");
+
+            // No index serves a lane (MOD of the worker count); the claim is one locking pass over the backlog
+            assertThat(plan("outbox_events", () -> outboxRepository.claim(0, 4, 5, 100)))
+                    .contains("LockRows", "on outbox_events").doesNotContain("Join", "Loop");
+
+            assertThat(plan("matches", () -> matchRepository.findAppliedResults(Set.of(game))))
+                    .contains("idx_matches_game_status");
+            assertThat(plan("users", () -> userRepository.findByResetToken("token-42")))
+                    .contains("idx_users_reset_token");
+            assertThat(plan("team_members", () -> teamRepository.findByMembersContaining(player)))
+                    .contains("idx_team_members_user");
+            assertThat(plan("matches", () -> matchRepository.deleteByUserId(user)))
+                    .contains("idx_matches_player1_created", "idx_matches_player2_created",
+                            "idx_matches_created_by_created");
+        });
+    }
+
+    /** Runs {@code call}, then EXPLAINs its first statement that mentions {@code table}, with its parameters. */
+    private String plan(String table, Runnable call) {
+        List<SqlRecorder.Recorded> recorded = SqlRecorder.record(call);
+        SqlRecorder.Recorded statement = recorded.stream()
+                .filter(r -> r.sql().contains(table))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No statement on " + table + " in " + recorded));
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                statement.bind(explain);
+                List<String> lines = new ArrayList<>();
+                try (ResultSet rs = explain.executeQuery()) {
+                    while (rs.next()) lines.add(rs.getString(1));
+                }
+                return String.join("\n", lines);
+            }
+        });
+        return plan;
+    }
+
+    /**
+     * Fills every table behind the queries above, with ids past everything already there, and refreshes
+     * the planner's statistics. Returns the id offset: user i is base + i, game i is base + i.
+     */
+    private long generate() {
+        long base = jdbcTemplate.queryForObject("""
+            SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), (SELECT COALESCE(MAX(id), 0) FROM games),
+                            (SELECT COALESCE(MAX(id), 0) FROM matches), (SELECT COALESCE(MAX(id), 0) FROM teams),
+                            (SELECT COALESCE(MAX(id), 0) FROM outbox_events)) + 1000
+            """, Long.class);
+        jdbcTemplate.update("""
+            INSERT INTO users (id, username, email, password, total_points, wins, losses, draws, created_at, reset_token)
+            SELECT ? + i, 'plan-' || (? + i), 'plan-' || (? + i) || '@test', 'x', 0, 0, 0, 0, now(), 'token-' || i
+            FROM generate_series(1, ?) i
+            """, base, base, base, USERS);
+        jdbcTemplate.update("""
+            INSERT INTO games (id, name, win_point, draw_point, loss_point, is_team_game)
+            SELECT ? + i, 'plan-' || (? + i), 3, 1, 0, false FROM generate_series(1, ?) i
+            """, base, base, GAMES);
+        // Each game has 500 players, half of them rated
+        jdbcTemplate.update("""
+            INSERT INTO player_game_stats (user_id, game_id, points, wins, losses, draws, rating)
+            SELECT ? + 1 + (g * 37 + j) % ?, ? + g, j % 50, j % 17, j % 13, j % 3,
+                   CASE WHEN j % 2 = 0 THEN 1500 + j END
+            FROM generate_series(1, ?) g, generate_series(1, 500) j
+            """, base, USERS, base, GAMES);
+        // Thirty days of 50 players per game
+        jdbcTemplate.update("""
+            INSERT INTO player_daily_stats (user_id, game_id, day, points, wins, losses, draws)
+            SELECT ? + 1 + (g * 37 + j) % ?, ? + g, DATE '2025-01-01' + d, j % 5, 1, 0, 0
+            FROM generate_series(1, ?) g, generate_series(1, 50) j, generate_series(0, 29) d
+            """, base, USERS, base, GAMES);
+        // One match a minute; every tenth still pending. User 1 plays every twentieth, so its history runs deep.
+        jdbcTemplate.update("""
+            INSERT INTO matches (id, game_id, is_team_match, player1_id, player2_id, bet_type, status,
+                                 result_confirmed_by_opponent, bet_settled_requested, bet_settled_confirmed,
+                                 created_at, completed_at, created_by, winner_id)
+            SELECT ? + k, ? + 1 + k % ?, false, ? + 1 + CASE WHEN k % 20 = 0 THEN 0 ELSE k % ? END,
+                   ? + 1 + (k * 7 + 1) % ?, 'FRIENDLY',
+                   CASE WHEN k % 10 = 0 THEN 'PENDING' ELSE 'COMPLETED' END,
+                   k % 10 <> 0, false, false,
+                   TIMESTAMP '2025-01-01' + k * INTERVAL '1 minute', TIMESTAMP '2025-01-01' + k * INTERVAL '1 minute',
+                   ? + 1 + k % ?, ? + 1 + k % ?
+            FROM generate_series(1, ?) k
+            """, base, base, GAMES, base, USERS, base, USERS, base, USERS, base, USERS, MATCHES);
+        jdbcTemplate.update("""
+            INSERT INTO match_participants (match_id, user_id, side, created_at, game_id, status)
+            SELECT m.id, s.user_id, s.side, m.created_at, m.game_id, m.status
+            FROM matches m CROSS JOIN LATERAL (VALUES (m.player1_id, 1), (m.player2_id, 2)) s(user_id, side)
+            WHERE m.id > ?
+            """, base);
+        // The newest tenth of the completed matches still waits in the outbox
+        jdbcTemplate.update("""
+            INSERT INTO outbox_events (id, type, aggregate_id, partition_key, attempts, created_at)
+            SELECT ? + k, 'MATCH_COMPLETED', ? + k, ? + 1 + k % ?, 0, now()
+            FROM generate_series(?, ?) k WHERE k % 10 <> 0
+            """, base, base, base, GAMES, MATCHES - MATCHES / 10, MATCHES);
+        jdbcTemplate.update("""
+            INSERT INTO teams (id, name, game_id) SELECT ? + t, 'plan-' || t, ? + 1 + t % ? FROM generate_series(1, 2000) t
+            """, base, base, GAMES);
+        jdbcTemplate.update("""
+            INSERT INTO team_members (team_id, user_id)
+            SELECT ? + t, ? + 1 + (2 * t + s) % ? FROM generate_series(1, 2000) t, generate_series(0, 1) s
+            """, base, base, USERS);
+        jdbcTemplate.execute("ANALYZE users, games, player_game_stats, player_daily_stats, matches,"
+                + " match_participants, outbox_events, teams, team_members");
+        return base;
+    }
+}
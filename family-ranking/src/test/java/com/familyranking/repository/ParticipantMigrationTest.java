@@ -0,0 +1,62 @@
+package com.familyranking.repository;
+
+import com.familyranking.PostgresTest;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Upgrading a V1 database fills match_participants for the matches it already has. */
+class ParticipantMigrationTest extends PostgresTest {
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void v2FillsParticipantsOfExistingMatches() {
+        String schema = "upgrade_" + UUID.randomUUID().toString().substring(0, 8);
+        try {
+            migrate(schema, "1");
+            jdbcTemplate.execute("""
+                INSERT INTO %1$s.users (id, username, email, password, total_points, wins, losses, draws)
+                VALUES (1, 'a', 'a@test', 'x', 0, 0, 0, 0), (2, 'b', 'b@test', 'x', 0, 0, 0, 0),
+                       (3, 'c', 'c@test', 'x', 0, 0, 0, 0), (4, 'd', 'd@test', 'x', 0, 0, 0, 0);
+                INSERT INTO %1$s.games (id, name, win_point, draw_point, loss_point) VALUES (1, 'g', 3, 1, 0);
+                INSERT INTO %1$s.teams (id, name, game_id) VALUES (1, 't1', 1), (2, 't2', 1);
+                INSERT INTO %1$s.team_members VALUES (1, 1), (1, 2), (2, 3), (2, 4);
+                INSERT INTO %1$s.matches (id, game_id, is_team_match, player1_id, player2_id, team1_id, team2_id, status,
+                                     result_confirmed_by_opponent, bet_settled_requested, bet_settled_confirmed,
+                                     created_at, created_by)
+                VALUES (1, 1, NULL, 1, 2, NULL, NULL, 'COMPLETED', true, false, false, now(), 3),
+                       (2, 1, true, NULL, NULL, 1, 2, 'PENDING', false, false, false, NULL, 1);
+                """.formatted(schema));
+
+            migrate(schema, "latest");
+
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT match_id, user_id, side FROM " + schema + ".match_participants ORDER BY match_id, user_id");
+            assertThat(rows).containsExactly(
+                    row(1, 1, 1), row(1, 2, 2), row(1, 3, 0),
+                    row(2, 1, 1), row(2, 2, 1), row(2, 3, 2), row(2, 4, 2));
+        } finally {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+        }
+    }
+
+    private void migrate(String schema, String target) {
+        Flyway.configure().dataSource(dataSource).schemas(schema).target(target).load().migrate();
+    }
+
+    private static Map<String, Object> row(long matchId, long userId, int side) {
+        return Map.of("match_id", matchId, "user_id", userId, "side", side);
+    }
+}
@@ -0,0 +1,69 @@
+package com.familyranking.security;
+
+import com.familyranking.exception.GlobalExceptionHandler;
+import com.familyranking.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void shutdown() {
+        if (encoder != null) encoder.shutdown();
+    }
+
+    @Test
+    void hashesWithinCapacity() {
+        encoder = new BoundedPasswordEncoder(registry, 4, 2, 4);
+
+        String hash = encoder.encode("secret");
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+    }
+
+    @Test
+    void saturatedPoolShedsWith503() throws Exception {
+        // One thread and one queue slot, with hashes slow enough to hold both while we probe
+        encoder = new BoundedPasswordEncoder(registry, 16, 1, 1);
+        startDaemon(() -> encoder.encode("running"));
+        // The pool thread is started with the first task, so once it exists that hash is running
+        await(() -> Thread.getAllStackTraces().keySet().stream().anyMatch(t -> t.getName().startsWith("bcrypt-")));
+        startDaemon(() -> encoder.encode("queued"));
+        await(() -> registry.get("password.hash.queue").gauge().value() == 1);
+
+        ServiceUnavailableException shed = catchThrowableOfType(
+                () -> encoder.matches("third", "$2a$04$abcdefghijklmnopqrstuu"), ServiceUnavailableException.class);
+
+        assertThat(shed).isNotNull();
+        assertThat(registry.counter("password.hash.rejected").count()).isEqualTo(1);
+        ResponseEntity<GlobalExceptionHandler.ErrorResponse> response =
+                new GlobalExceptionHandler().handleServiceUnavailable(shed);
+        assertThat(response.getStatusCode().value()).isEqualTo(503);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isNotNull();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void startDaemon(Runnable task) {
+        Thread t = new Thread(task);
+        t.setDaemon(true);
+        t.start();
+    }
+}
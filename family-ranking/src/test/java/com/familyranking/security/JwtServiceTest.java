@@ -0,0 +1,56 @@
+package com.familyranking.security;
+
+import com.familyranking.entity.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final User alice = User.builder().username("alice").email("alice@test").password("x").build();
+
+    @Test
+    void cachedTokenIsRejectedOnceExpired() throws Exception {
+        JwtService jwt = new JwtService(SECRET, 1500, 100);
+        String token = jwt.generateToken(alice);
+
+        // First call verifies the signature and caches the claims; the second is a cache hit
+        Claims first = jwt.verify(token);
+        assertThat(first).isNotNull();
+        assertThat(jwt.verify(token)).isSameAs(first);
+        assertThat(jwt.isTokenValid(first, alice)).isTrue();
+
+        Thread.sleep(first.getExpiration().getTime() - System.currentTimeMillis() + 50);
+
+        assertThat(jwt.verify(token)).isNull();
+        assertThat(jwt.isTokenValid(first, alice)).isFalse();
+    }
+
+    @Test
+    void fullCacheStillRejectsExpiredTokens() throws Exception {
+        JwtService jwt = new JwtService(SECRET, 1500, 1);
+        String expiring = jwt.generateToken(alice);
+        Claims claims = jwt.verify(expiring);
+
+        Thread.sleep(claims.getExpiration().getTime() - System.currentTimeMillis() + 50);
+
+        // The expired entry is swept to make room for a fresh token, and is never served again
+        String fresh = new JwtService(SECRET, 60_000, 1).generateToken(alice);
+        assertThat(jwt.verify(fresh)).isNotNull();
+        assertThat(jwt.verify(expiring)).isNull();
+    }
+
+    @Test
+    void forgedTokenIsNeverCached() {
+        JwtService jwt = new JwtService(SECRET, 60_000, 100);
+        String token = jwt.generateToken(alice);
+        String forged = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThat(jwt.verify(forged)).isNull();
+        assertThat(jwt.verify(forged)).isNull();
+        assertThat(jwt.verify(token)).isNotNull();
+    }
+}
@@ -0,0 +1,62 @@
+package com.familyranking.service;
+
+import com.familyranking.PostgresTest;
+import com.familyranking.dto.request.BatchMatchItem;
+import com.familyranking.dto.response.Response;
+import com.familyranking.entity.Game;
+import com.familyranking.entity.Match.BetType;
+import com.familyranking.entity.User;
+import com.familyranking.repository.GameRepository;
+import com.familyranking.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** A tournament import records each match between the players it names, not the importing user. */
+class BatchImportTest extends PostgresTest {
+
+    @Autowired
+    private MatchService matchService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Test
+    void importedMatchesKeepTheirOwnPlayers() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        User organiser = user("org-" + run);
+        User alice = user("alice-" + run);
+        User bob = user("bob-" + run);
+        Game game = gameRepository.save(Game.builder().name("import-" + run).build());
+
+        List<Response.BatchMatchResult> results = matchService.createMatches(organiser, List.of(
+                item(game, alice.getId(), bob.getId()),
+                item(game, alice.getId(), alice.getId()),
+                item(game, alice.getId(), -1L)), false);
+
+        Response.MatchDto imported = results.get(0).getMatch();
+        assertThat(imported.getPlayer1().getId()).isEqualTo(alice.getId());
+        assertThat(imported.getPlayer2().getId()).isEqualTo(bob.getId());
+        assertThat(results.get(1).isSuccess()).isFalse();
+        assertThat(results.get(2).getError()).isEqualTo("Player 2 not found");
+    }
+
+    private BatchMatchItem item(Game game, Long player1Id, Long player2Id) {
+        BatchMatchItem item = new BatchMatchItem();
+        item.setGameId(game.getId());
+        item.setPlayer1Id(player1Id);
+        item.setPlayer2Id(player2Id);
+        item.setBetType(BetType.FRIENDLY);
+        item.setWinnerId(player1Id);
+        return item;
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder().username(name).email(name + "@test").password("x").build());
+    }
+}
@@ -0,0 +1,76 @@
+package com.familyranking.service;
+
+import com.familyranking.PostgresTest;
+import com.familyranking.dto.request.BatchMatchItem;
+import com.familyranking.dto.request.MatchRequest;
+import com.familyranking.dto.response.Response;
+import com.familyranking.entity.Game;
+import com.familyranking.entity.Match.BetType;
+import com.familyranking.entity.Match.MatchStatus;
+import com.familyranking.entity.User;
+import com.familyranking.repository.GameRepository;
+import com.familyranking.repository.MatchHistoryRepository.MatchFilter;
+import com.familyranking.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** History filters read the participants' copies of game and status, so those must follow every transition. */
+class MatchHistoryFilterTest extends PostgresTest {
+
+    @Autowired
+    private MatchService matchService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Test
+    void filtersFollowTransitions() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        User me = user("me-" + run);
+        User other = user("other-" + run);
+        Game chess = gameRepository.save(Game.builder().name("chess-" + run).build());
+        Game darts = gameRepository.save(Game.builder().name("darts-" + run).build());
+
+        Long accepted = create(me, other, chess);
+        Long pending = create(me, other, chess);
+        Long rejected = create(me, other, darts);
+        matchService.acceptMatch(other, accepted);
+        matchService.rejectMatch(other, rejected);
+
+        BatchMatchItem item = new BatchMatchItem();
+        item.setGameId(darts.getId());
+        item.setPlayer1Id(me.getId());
+        item.setPlayer2Id(other.getId());
+        item.setBetType(BetType.FRIENDLY);
+        Long imported = matchService.createMatches(me, List.of(item), true).get(0).getMatch().getId();
+
+        assertThat(ids(me, new MatchFilter(chess.getId(), null, null))).containsExactly(pending, accepted);
+        assertThat(ids(other, new MatchFilter(null, MatchStatus.COMPLETED, null))).containsExactly(imported, accepted);
+        assertThat(ids(me, new MatchFilter(darts.getId(), MatchStatus.REJECTED, null))).containsExactly(rejected);
+        assertThat(ids(me, new MatchFilter(chess.getId(), MatchStatus.PENDING, null))).containsExactly(pending);
+    }
+
+    private Long create(User creator, User opponent, Game game) {
+        MatchRequest request = new MatchRequest();
+        request.setGameId(game.getId());
+        request.setOpponentId(opponent.getId());
+        request.setBetType(BetType.FRIENDLY);
+        request.setWinnerId(creator.getId());
+        return matchService.createMatch(creator, request).getId();
+    }
+
+    private List<Long> ids(User user, MatchFilter filter) {
+        return matchService.getMyMatchesPage(user, filter, null, 50).getMatches().stream()
+                .map(Response.MatchDto::getId).toList();
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder().username(name).email(name + "@test").password("x").build());
+    }
+}
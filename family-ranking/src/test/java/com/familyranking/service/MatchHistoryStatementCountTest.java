@@ -0,0 +1,108 @@
+package com.familyranking.service;
+
+import com.familyranking.PostgresTest;
+import com.familyranking.dto.request.MatchRequest;
+import com.familyranking.dto.response.Response;
+import com.familyranking.entity.Game;
+import com.familyranking.entity.Match.BetType;
+import com.familyranking.entity.Team;
+import com.familyranking.entity.User;
+import com.familyranking.repository.GameRepository;
+import com.familyranking.repository.MatchHistoryRepository.MatchFilter;
+import com.familyranking.repository.TeamRepository;
+import com.familyranking.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Paging through /matches/my must cost the same few statements per page, however many players and teams it shows. */
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Statistics are global, so the outbox's background poll is kept out of the way
+        "app.outbox.poll-interval-ms=3600000"
+})
+class MatchHistoryStatementCountTest extends PostgresTest {
+
+    private static final int OPPONENTS = 8;
+    private static final int MATCHES = 25;
+    private static final int PAGE = 10;
+
+    @Autowired
+    private MatchService matchService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private GameRepository gameRepository;
+    @Autowired
+    private TeamRepository teamRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void historyPagesUseAFixedNumberOfStatements() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        User me = user("me-" + run);
+        List<User> opponents = new ArrayList<>();
+        for (int i = 0; i < OPPONENTS; i++) opponents.add(user("o" + i + "-" + run));
+
+        Game solo = gameRepository.save(Game.builder().name("solo-" + run).build());
+        Game doubles = gameRepository.save(Game.builder().name("doubles-" + run).teamGame(true).build());
+        List<Team> myTeams = new ArrayList<>();
+        List<Team> theirTeams = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            myTeams.add(team("mine" + i + "-" + run, doubles, Set.of(me, opponents.get(i))));
+            theirTeams.add(team("theirs" + i + "-" + run, doubles, Set.of(opponents.get(i + 3), opponents.get(i + 4))));
+        }
+
+        for (int i = 0; i < MATCHES; i++) {
+            MatchRequest request = new MatchRequest();
+            request.setBetType(BetType.FRIENDLY);
+            if (i % 3 == 0) {
+                request.setGameId(doubles.getId());
+                request.setTeamMatch(true);
+                request.setTeam1Id(myTeams.get(i % myTeams.size()).getId());
+                request.setTeam2Id(theirTeams.get(i % theirTeams.size()).getId());
+            } else {
+                request.setGameId(solo.getId());
+                request.setOpponentId(opponents.get(i % OPPONENTS).getId());
+            }
+            matchService.createMatch(me, request);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        MatchFilter all = new MatchFilter(null, null, null);
+        List<Long> perPage = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            Response.MatchPage page = matchService.getMyMatchesPage(me, all, cursor, PAGE);
+            perPage.add(statistics.getPrepareStatementCount());
+            page.getMatches().forEach(m -> assertThat(seen.add(m.getId())).isTrue());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(MATCHES);
+        // Ids, the matches with game/players/teams joined, and one batch of team members
+        assertThat(perPage).hasSize(3).containsOnly(3L);
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder().username(name).email(name + "@test").password("x").build());
+    }
+
+    private Team team(String name, Game game, Set<User> members) {
+        return teamRepository.save(Team.builder().name(name).game(game).members(new HashSet<>(members)).build());
+    }
+}
@@ -0,0 +1,48 @@
+package com.familyranking.service;
+
+import com.familyranking.PostgresTest;
+import com.familyranking.dto.request.ProfileUpdateRequest;
+import com.familyranking.dto.response.Response;
+import com.familyranking.entity.User;
+import com.familyranking.repository.UserRepository;
+import com.familyranking.security.PrincipalCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** A profile update through a cached principal must not write back the stats that principal was loaded with. */
+class ProfileUpdateStaleStatsTest extends PostgresTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PrincipalCache principalCache;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void statsAppliedAfterThePrincipalWasCachedSurviveAProfileUpdate() {
+        String name = "stale-" + UUID.randomUUID().toString().substring(0, 8);
+        User saved = userRepository.save(User.builder().username(name).email(name + "@test").password("x").build());
+
+        User principal = principalCache.load(name);
+        // A match applied meanwhile, as the projection does it: straight to the row
+        jdbcTemplate.update("UPDATE users SET total_points = total_points + 3, wins = wins + 1 WHERE id = ?", saved.getId());
+
+        ProfileUpdateRequest request = new ProfileUpdateRequest();
+        request.setAvatar("avatar.png");
+        Response.UserProfile profile = userService.updateProfile(principal, request);
+
+        User stored = userRepository.findById(saved.getId()).orElseThrow();
+        assertThat(stored.getAvatar()).isEqualTo("avatar.png");
+        assertThat(stored.getTotalPoints()).isEqualTo(3);
+        assertThat(stored.getWins()).isEqualTo(1);
+        assertThat(profile.getTotalPoints()).isEqualTo(3);
+    }
+}
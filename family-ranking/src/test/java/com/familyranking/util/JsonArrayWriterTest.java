@@ -0,0 +1,51 @@
+package com.familyranking.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonArrayWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final JsonArrayWriter writer = new JsonArrayWriter(objectMapper);
+
+    @Test
+    void itemsReachTheResponseWhileTheSourceIsStillReading() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long[] writtenMidway = new long[1];
+        StreamingResponseBody body = writer.<Map<String, Object>>stream(sink -> {
+            for (int i = 0; i < 10_000; i++) {
+                sink.accept(Map.of("id", i, "name", "player-" + i));
+                if (i == 5_000) writtenMidway[0] = out.size();
+            }
+        }).getBody();
+
+        body.writeTo(out);
+
+        // Only the generator's small buffer is held back, not the rows read so far
+        assertThat(writtenMidway[0]).isGreaterThan(out.size() / 4);
+        JsonNode array = objectMapper.readTree(out.toByteArray());
+        assertThat(array.isArray()).isTrue();
+        assertThat(array).hasSize(10_000);
+        assertThat(array.get(9_999).get("name").asText()).isEqualTo("player-9999");
+    }
+
+    @Test
+    void failureHalfwayLeavesTheArrayUnterminated() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamingResponseBody body = writer.<Integer>stream(sink -> {
+            sink.accept(1);
+            throw new IllegalStateException("database went away");
+        }).getBody();
+
+        assertThatThrownBy(() -> body.writeTo(out)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> objectMapper.readTree(out.toByteArray())).isInstanceOf(Exception.class);
+    }
+}